@@ -0,0 +1,27 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+public final class Base32BitmaskCodec {
+
+    public static final int RADIX = 32;
+    public static final int BITS_PER_DIGIT = 5;
+
+    private Base32BitmaskCodec() {
+    }
+
+    public static String encode(long[] words) {
+        return RadixBitmaskCodec.BASE32.encode("", words);
+    }
+
+    public static long[] decode(CharSequence bitmask) {
+        return decode(bitmask, 0, bitmask.length());
+    }
+
+    public static long[] decode(CharSequence bitmask, int start, int end) {
+        return RadixBitmaskCodec.BASE32.decodeWords(bitmask, start, end);
+    }
+
+    public static int digit(char symbol) {
+        return RadixBitmaskCodec.BASE32.digit(symbol);
+    }
+
+}
@@ -0,0 +1,264 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class BitPermissionBinaryCodec {
+
+    private static final int INLINE_DOMAIN_ID = 0;
+    private static final int BASE32_FORM = 0;
+    private static final int BASE64URL_FORM = 1;
+    private static final int RAW_FORM = 2;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = (1 << VARINT_PAYLOAD_BITS) - 1;
+    private static final int VARINT_CONTINUATION_FLAG = 1 << VARINT_PAYLOAD_BITS;
+    private static final int MAX_VARINT_LENGTH = (Integer.SIZE + VARINT_PAYLOAD_BITS - 1) / VARINT_PAYLOAD_BITS;
+
+    private final List<String> domains;
+    private final Map<String, Integer> domainIds;
+
+    public BitPermissionBinaryCodec(List<String> domains) {
+        this.domains = List.copyOf(domains);
+        this.domainIds = new HashMap<>();
+        for (int index = 0; index < this.domains.size(); index++) {
+            if (domainIds.putIfAbsent(this.domains.get(index), index + 1) != null) {
+                throw new IllegalArgumentException("Duplicate domain: " + this.domains.get(index));
+            }
+        }
+    }
+
+    public int encodedLength(List<BitPermission> bitPermissions) {
+        var length = varintLength(bitPermissions.size());
+        for (final var bitPermission : bitPermissions) {
+            requireValid(bitPermission);
+            final var domainId = domainIds.getOrDefault(bitPermission.domain(), INLINE_DOMAIN_ID);
+            length += varintLength(domainId);
+            if (domainId == INLINE_DOMAIN_ID) {
+                final var domainLength = utf8Length(bitPermission.domain());
+                length += varintLength(domainLength) + domainLength;
+            }
+            length += varintLength(zigZag(bitPermission.revision())) + 1;
+            length += bitmaskLength(bitPermission.bitmask(), bitmaskForm(bitPermission.bitmask()));
+        }
+        return length;
+    }
+
+    public void writeTo(List<BitPermission> bitPermissions, ByteBuffer buffer) {
+        writeVarint(buffer, bitPermissions.size());
+        for (final var bitPermission : bitPermissions) {
+            requireValid(bitPermission);
+            final var domainId = domainIds.getOrDefault(bitPermission.domain(), INLINE_DOMAIN_ID);
+            writeVarint(buffer, domainId);
+            if (domainId == INLINE_DOMAIN_ID) {
+                final var domainBytes = bitPermission.domain().getBytes(StandardCharsets.UTF_8);
+                writeVarint(buffer, domainBytes.length);
+                buffer.put(domainBytes);
+            }
+            writeVarint(buffer, zigZag(bitPermission.revision()));
+            writeBitmask(buffer, bitPermission.bitmask());
+        }
+    }
+
+    public List<BitPermission> readFrom(ByteBuffer buffer) {
+        final var count = readVarint(buffer);
+        if (count < 0) {
+            throw new IllegalArgumentException("Illegal bit permission count: " + count);
+        }
+        final var bitPermissions = new ArrayList<BitPermission>(Math.min(count, buffer.remaining()));
+        for (int index = 0; index < count; index++) {
+            final var domain = readDomain(buffer);
+            final var encodedRevision = readVarint(buffer);
+            final Integer revision = (encodedRevision >>> 1) ^ -(encodedRevision & 1);
+            bitPermissions.add(new BitPermission(domain, revision, readBitmask(buffer)));
+        }
+        return bitPermissions;
+    }
+
+    private static void requireValid(BitPermission bitPermission) {
+        Objects.requireNonNull(bitPermission);
+        Objects.requireNonNull(bitPermission.domain());
+        Objects.requireNonNull(bitPermission.revision());
+        Objects.requireNonNull(bitPermission.bitmask());
+    }
+
+    private String readDomain(ByteBuffer buffer) {
+        final var domainId = readVarint(buffer);
+        if (domainId == INLINE_DOMAIN_ID) {
+            return new String(readBytes(buffer, readVarint(buffer)), StandardCharsets.UTF_8);
+        }
+        if (domainId < 0 || domainId > domains.size()) {
+            throw new IllegalArgumentException("Unknown domain id: " + domainId);
+        }
+        return domains.get(domainId - 1);
+    }
+
+    private static int bitmaskForm(String bitmask) {
+        var form = BASE32_FORM;
+        for (int position = 0; position < bitmask.length(); position++) {
+            final var symbol = bitmask.charAt(position);
+            if (!isBase32Symbol(symbol)) {
+                if (!isBase64UrlSymbol(symbol)) {
+                    return RAW_FORM;
+                }
+                form = BASE64URL_FORM;
+            }
+        }
+        return form;
+    }
+
+    private static int bitmaskLength(String bitmask, int form) {
+        return switch (form) {
+            case BASE32_FORM -> packedBitmaskLength(bitmask, RadixBitmaskCodec.BASE32);
+            case BASE64URL_FORM -> packedBitmaskLength(bitmask, RadixBitmaskCodec.BASE64URL);
+            default -> {
+                final var byteLength = utf8Length(bitmask);
+                yield varintLength(byteLength) + byteLength;
+            }
+        };
+    }
+
+    private static void writeBitmask(ByteBuffer buffer, String bitmask) {
+        final var form = bitmaskForm(bitmask);
+        buffer.put((byte) form);
+        switch (form) {
+            case BASE32_FORM -> writePacked(buffer, bitmask, RadixBitmaskCodec.BASE32);
+            case BASE64URL_FORM -> writePacked(buffer, bitmask, RadixBitmaskCodec.BASE64URL);
+            default -> {
+                final var bitmaskBytes = bitmask.getBytes(StandardCharsets.UTF_8);
+                writeVarint(buffer, bitmaskBytes.length);
+                buffer.put(bitmaskBytes);
+            }
+        }
+    }
+
+    private static String readBitmask(ByteBuffer buffer) {
+        final var form = buffer.get();
+        return switch (form) {
+            case BASE32_FORM -> readPacked(buffer, RadixBitmaskCodec.BASE32);
+            case BASE64URL_FORM -> readPacked(buffer, RadixBitmaskCodec.BASE64URL);
+            case RAW_FORM -> new String(readBytes(buffer, readVarint(buffer)), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown bitmask form: " + form);
+        };
+    }
+
+    private static void writePacked(ByteBuffer buffer, String bitmask, RadixBitmaskCodec alphabet) {
+        final var bitsPerDigit = alphabet.bitsPerDigit();
+        writeVarint(buffer, bitmask.length());
+        var accumulator = 0;
+        var accumulatedBits = 0;
+        for (int position = 0; position < bitmask.length(); position++) {
+            accumulator = (accumulator << bitsPerDigit) | alphabet.digit(bitmask.charAt(position));
+            accumulatedBits += bitsPerDigit;
+            if (accumulatedBits >= Byte.SIZE) {
+                accumulatedBits -= Byte.SIZE;
+                buffer.put((byte) (accumulator >>> accumulatedBits));
+            }
+        }
+        if (accumulatedBits > 0) {
+            buffer.put((byte) (accumulator << (Byte.SIZE - accumulatedBits)));
+        }
+    }
+
+    private static String readPacked(ByteBuffer buffer, RadixBitmaskCodec alphabet) {
+        final var bitsPerDigit = alphabet.bitsPerDigit();
+        final var length = readVarint(buffer);
+        if (length < 0 || packedLength(length, bitsPerDigit) > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated bitmask of length: " + length);
+        }
+        final var symbols = new char[length];
+        final var digitMask = (1 << bitsPerDigit) - 1;
+        var accumulator = 0;
+        var accumulatedBits = 0;
+        for (int position = 0; position < length; position++) {
+            if (accumulatedBits < bitsPerDigit) {
+                accumulator = (accumulator << Byte.SIZE) | (buffer.get() & 0xff);
+                accumulatedBits += Byte.SIZE;
+            }
+            accumulatedBits -= bitsPerDigit;
+            symbols[position] = alphabet.symbol((accumulator >>> accumulatedBits) & digitMask);
+        }
+        return new String(symbols);
+    }
+
+    private static int packedBitmaskLength(String bitmask, RadixBitmaskCodec alphabet) {
+        return varintLength(bitmask.length()) + packedLength(bitmask.length(), alphabet.bitsPerDigit());
+    }
+
+    private static int packedLength(int symbolCount, int bitsPerDigit) {
+        return (int) (((long) symbolCount * bitsPerDigit + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated value of length: " + length);
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static boolean isBase32Symbol(char symbol) {
+        return (symbol >= '0' && symbol <= '9') || (symbol >= 'a' && symbol <= 'v');
+    }
+
+    private static boolean isBase64UrlSymbol(char symbol) {
+        return (symbol >= '0' && symbol <= '9') || (symbol >= 'a' && symbol <= 'z') || (symbol >= 'A' && symbol <= 'Z')
+                || symbol == '-' || symbol == '_';
+    }
+
+    static int utf8Length(String value) {
+        var length = 0;
+        for (int position = 0; position < value.length(); position++) {
+            final var symbol = value.charAt(position);
+            if (symbol < 0x80) {
+                length++;
+            } else if (symbol < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(symbol)) {
+                length += 4;
+                position++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int varintLength(int value) {
+        var length = 1;
+        while ((value >>>= VARINT_PAYLOAD_BITS) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            buffer.put((byte) (VARINT_CONTINUATION_FLAG | (value & VARINT_PAYLOAD_MASK)));
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        var value = 0;
+        for (int index = 0; index < MAX_VARINT_LENGTH; index++) {
+            final var current = buffer.get();
+            value |= (current & VARINT_PAYLOAD_MASK) << (index * VARINT_PAYLOAD_BITS);
+            if ((current & VARINT_CONTINUATION_FLAG) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+}
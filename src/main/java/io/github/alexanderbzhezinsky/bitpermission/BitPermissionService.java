@@ -1,33 +1,59 @@
 package io.github.alexanderbzhezinsky.bitpermission;
 
-import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 public class BitPermissionService {
 
-    protected static final BigInteger ZERO_BIG_INT = new BigInteger("0");
-    protected static final BigInteger BASE_BIG_INT = new BigInteger("2");
-    protected static final int BITMASK_RADIX = 32;
+    protected static final int BITMASK_RADIX = Base32BitmaskCodec.RADIX;
+    protected static final int BITMASK_DIGIT_BITS = Base32BitmaskCodec.BITS_PER_DIGIT;
     protected final Map<String, EnumClassPermissions> domainClassPermissionMap;
+    protected final ClassValue<DomainMember> domainMemberLookup;
+    protected final Set<BitmaskEncoding> bitmaskEncodings;
 
     public BitPermissionService(Set<Class<? extends Enum<?>>> enumClasses) {
-        validateEnumClasses(enumClasses);
-        this.domainClassPermissionMap = createDomainClassPermissionMap(enumClasses);
+        this(enumClasses, EnumSet.of(BitmaskEncoding.BASE32));
+    }
+
+    public BitPermissionService(Set<Class<? extends Enum<?>>> enumClasses, Set<BitmaskEncoding> bitmaskEncodings) {
+        this(enumClasses, bitmaskEncodings, Set.of());
+    }
+
+    public BitPermissionService(Set<Class<? extends Enum<?>>> enumClasses,
+                                Set<BitmaskEncoding> bitmaskEncodings,
+                                Set<PermissionLayout> permissionLayouts) {
+        this(enumClasses, bitmaskEncodings, permissionLayouts, Set.of());
+    }
+
+    public BitPermissionService(Set<Class<? extends Enum<?>>> enumClasses,
+                                Set<BitmaskEncoding> bitmaskEncodings,
+                                Set<PermissionLayout> permissionLayouts,
+                                Set<CompositeDomain> compositeDomains) {
+        if (compositeDomains.isEmpty() || !enumClasses.isEmpty()) {
+            validateEnumClasses(enumClasses);
+        }
+        validateCompositeDomains(enumClasses, compositeDomains);
+        validateBitmaskEncodings(bitmaskEncodings);
+        validatePermissionLayouts(enumClasses, permissionLayouts);
+        this.domainClassPermissionMap =
+                createDomainClassPermissionMap(enumClasses, permissionLayouts, compositeDomains);
+        this.domainMemberLookup = createDomainMemberLookup(domainClassPermissionMap.values());
+        this.bitmaskEncodings = Collections.unmodifiableSet(EnumSet.copyOf(bitmaskEncodings));
     }
 
     protected static void validateEnumClasses(Set<Class<? extends Enum<?>>> enumClasses) {
@@ -48,154 +74,604 @@ public class BitPermissionService {
         }
     }
 
+    protected static void validateCompositeDomains(Set<Class<? extends Enum<?>>> enumClasses,
+                                                   Set<CompositeDomain> compositeDomains) {
+        final var domains = enumClasses.stream().map(Class::getSimpleName).collect(toSet());
+        final var memberClasses = new HashSet<Class<?>>(enumClasses);
+        for (final var compositeDomain : compositeDomains) {
+            Objects.requireNonNull(compositeDomain);
+            if (!domains.add(compositeDomain.getDomain())) {
+                throw new IllegalArgumentException("Duplicate domains are not allowed!");
+            }
+            for (final var enumClass : compositeDomain.getEnumClasses()) {
+                if (!memberClasses.add(enumClass)) {
+                    throw new IllegalArgumentException("Enum class may belong to a single domain only!");
+                }
+            }
+        }
+    }
+
+    protected static void validateBitmaskEncodings(Set<BitmaskEncoding> bitmaskEncodings) {
+        if (bitmaskEncodings.isEmpty()) {
+            throw new IllegalArgumentException("Empty bitmask encodings set is not allowed!");
+        }
+        bitmaskEncodings.forEach(Objects::requireNonNull);
+    }
+
+    protected static void validatePermissionLayouts(Set<Class<? extends Enum<?>>> enumClasses,
+                                                    Set<PermissionLayout> permissionLayouts) {
+        final var layoutEnumClasses = new HashSet<Class<?>>();
+        for (final var permissionLayout : permissionLayouts) {
+            Objects.requireNonNull(permissionLayout);
+            if (!enumClasses.contains(permissionLayout.getEnumClass())) {
+                throw new IllegalArgumentException("Permission layout of unknown enum class is not allowed!");
+            }
+            if (!layoutEnumClasses.add(permissionLayout.getEnumClass())) {
+                throw new IllegalArgumentException("Many permission layouts of the same enum class are not allowed!");
+            }
+        }
+    }
+
     protected static Map<String, EnumClassPermissions> createDomainClassPermissionMap(Set<Class<? extends Enum<?>>> enumClasses) {
-        return enumClasses.stream()
+        return createDomainClassPermissionMap(enumClasses, Set.of());
+    }
+
+    protected static Map<String, EnumClassPermissions> createDomainClassPermissionMap(
+            Set<Class<? extends Enum<?>>> enumClasses, Set<PermissionLayout> permissionLayouts) {
+        return createDomainClassPermissionMap(enumClasses, permissionLayouts, Set.of());
+    }
+
+    protected static Map<String, EnumClassPermissions> createDomainClassPermissionMap(
+            Set<Class<? extends Enum<?>>> enumClasses,
+            Set<PermissionLayout> permissionLayouts,
+            Set<CompositeDomain> compositeDomains) {
+        final var layoutMap = permissionLayouts.stream()
+                .collect(Collectors.toMap(PermissionLayout::getEnumClass, permissionLayout -> permissionLayout));
+        final var domainClassPermissionMap = new HashMap<String, EnumClassPermissions>();
+        enumClasses.forEach(enumClass -> domainClassPermissionMap.put(
+                enumClass.getSimpleName(),
+                new EnumClassPermissions(
+                        enumClass,
+                        Collections.unmodifiableList(Arrays.asList(enumClass.getEnumConstants())),
+                        layoutMap.get(enumClass))));
+        compositeDomains.forEach(compositeDomain -> domainClassPermissionMap.put(
+                compositeDomain.getDomain(),
+                new EnumClassPermissions(compositeDomain.getDomain(), compositeDomain.getEnumClasses())));
+        return Map.copyOf(domainClassPermissionMap);
+    }
+
+    protected static ClassValue<DomainMember> createDomainMemberLookup(
+            Collection<EnumClassPermissions> enumClassPermissionsCollection) {
+        return new ClassValue<>() {
+            @Override
+            protected DomainMember computeValue(Class<?> type) {
+                for (final var enumClassPermissions : enumClassPermissionsCollection) {
+                    final var memberClasses = enumClassPermissions.memberClasses;
+                    for (int memberIndex = 0; memberIndex < memberClasses.size(); memberIndex++) {
+                        if (memberClasses.get(memberIndex) == type) {
+                            return new DomainMember(
+                                    enumClassPermissions,
+                                    enumClassPermissions.memberOffsets[memberIndex],
+                                    type.getEnumConstants().length);
+                        }
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    public Map<String, Integer> getDomainRevisions() {
+        return domainClassPermissionMap.values().stream()
                 .collect(Collectors.toUnmodifiableMap(
-                        Class::getSimpleName,
-                        enumClass -> new EnumClassPermissions(
-                                enumClass,
-                                Collections.unmodifiableList(Arrays.asList(enumClass.getEnumConstants())))));
+                        enumClassPermissions -> enumClassPermissions.domain,
+                        enumClassPermissions -> enumClassPermissions.permissionList.size()));
     }
 
     public List<BitPermission> getBitPermissions(List<? extends Enum<?>> permissions) {
         if (permissions.isEmpty()) {
             return Collections.emptyList();
         }
-        final var knownPermissions = getKnownPermissions(permissions);
-        return getClassPermissionOrdinalMap(knownPermissions)
+        return getDomainBitSetMap(permissions)
                 .entrySet()
                 .stream()
                 .map(this::getBitPermission)
                 .collect(Collectors.toList());
     }
 
+    protected DomainMember getDomainMember(Enum<?> permission) {
+        return domainMemberLookup.get(permission.getDeclaringClass());
+    }
+
+    protected EnumClassPermissions getEnumClassPermissions(Enum<?> permission) {
+        final var domainMember = getDomainMember(permission);
+        return domainMember == null ? null : domainMember.enumClassPermissions;
+    }
+
     protected List<? extends Enum<?>> getKnownPermissions(List<? extends Enum<?>> permissions) {
         return permissions.stream()
-                .filter(permission -> {
-                    final var domain = permission.getClass().getSimpleName();
-                    final var enumClassPermissions = domainClassPermissionMap.get(domain);
-                    return enumClassPermissions != null && enumClassPermissions.enumClass == permission.getClass();
-                })
+                .filter(permission -> getDomainMember(permission) != null)
                 .toList();
     }
 
-    protected Map<Class<?>, Set<Integer>> getClassPermissionOrdinalMap(List<? extends Enum<?>> knownPermissions) {
-        final var classPermissionOrdinalMap = new HashMap<Class<?>, Set<Integer>>();
-        knownPermissions.forEach(permission ->
-                classPermissionOrdinalMap.compute(
-                        permission.getClass(),
-                        (k, v) -> {
-                            if (v == null) {
-                                final var newSet = new HashSet<Integer>();
-                                newSet.add(permission.ordinal());
-                                return newSet;
-                            }
-                            v.add(permission.ordinal());
-                            return v;
-                        }));
-        return classPermissionOrdinalMap;
-    }
-
-    protected BitPermission getBitPermission(Map.Entry<Class<?>, Set<Integer>> enumClassPermissionOrdinals) {
-        final var enumClass = enumClassPermissionOrdinals.getKey();
-        final var domain = enumClass.getSimpleName();
-        final var permissionOrdinals = enumClassPermissionOrdinals.getValue();
-        final var bitmask = permissionOrdinals
-                .stream()
-                .map(BASE_BIG_INT::pow)
-                .reduce(ZERO_BIG_INT, BigInteger::add);
-        final Integer revision = domainClassPermissionMap.get(domain).permissionList.size();
-        return new BitPermission(domain, revision, bitmask.toString(BITMASK_RADIX));
+    protected Map<EnumClassPermissions, PermissionBitSet> getDomainBitSetMap(List<? extends Enum<?>> permissions) {
+        final var domainBitSetMap = new IdentityHashMap<EnumClassPermissions, PermissionBitSet>();
+        for (final var permission : permissions) {
+            final var domainMember = getDomainMember(permission);
+            if (domainMember != null) {
+                final var enumClassPermissions = domainMember.enumClassPermissions;
+                enumClassPermissions.set(
+                        domainBitSetMap.computeIfAbsent(enumClassPermissions, EnumClassPermissions::newBitSet),
+                        domainMember.index(permission));
+            }
+        }
+        return domainBitSetMap;
+    }
+
+    protected BitPermission getBitPermission(Map.Entry<EnumClassPermissions, PermissionBitSet> domainBitSet) {
+        final var enumClassPermissions = domainBitSet.getKey();
+        final Integer revision = enumClassPermissions.permissionList.size();
+        final var layout = enumClassPermissions.layout;
+        if (layout == null) {
+            return new BitPermission(
+                    enumClassPermissions.domain, revision, encodeBitmask(domainBitSet.getValue(), revision));
+        }
+        final var version = layout.getLatestVersion();
+        final var physicalBitSet = layout.toPhysical(version, domainBitSet.getValue());
+        final var bitmask = layout.getPrefix(version) + encodeBitmask(physicalBitSet, revision);
+        return new BitPermission(enumClassPermissions.domain, revision, bitmask);
+    }
+
+    protected String encodeBitmask(PermissionBitSet bitSet, int universe) {
+        BitmaskEncoding shortestEncoding = null;
+        var shortestLength = Integer.MAX_VALUE;
+        for (final var bitmaskEncoding : bitmaskEncodings) {
+            final var encodedLength = bitmaskEncoding.encodedLength(bitSet, universe);
+            if (encodedLength < shortestLength) {
+                shortestEncoding = bitmaskEncoding;
+                shortestLength = encodedLength;
+            }
+        }
+        return shortestEncoding.encode(bitSet, universe);
+    }
+
+    public Map<BitmaskEncoding, Integer> getEncodedSizes(List<? extends Enum<?>> permissions, TokenFormat tokenFormat) {
+        final var domainBitSetMap = getDomainBitSetMap(permissions);
+        final var encodedSizes = new EnumMap<BitmaskEncoding, Integer>(BitmaskEncoding.class);
+        for (final var bitmaskEncoding : BitmaskEncoding.values()) {
+            var encodedSize = tokenFormat.enclosingSize(domainBitSetMap.size());
+            for (final var domainBitSet : domainBitSetMap.entrySet()) {
+                final var enumClassPermissions = domainBitSet.getKey();
+                final var revision = enumClassPermissions.permissionList.size();
+                final var layout = enumClassPermissions.layout;
+                final var bitmaskLength = layout == null
+                        ? bitmaskEncoding.encodedLength(domainBitSet.getValue(), revision)
+                        : layout.getPrefix(layout.getLatestVersion()).length() + bitmaskEncoding.encodedLength(
+                                layout.toPhysical(layout.getLatestVersion(), domainBitSet.getValue()), revision);
+                encodedSize += tokenFormat.entrySize(enumClassPermissions.domain, revision, bitmaskLength);
+            }
+            encodedSizes.put(bitmaskEncoding, encodedSize);
+        }
+        return encodedSizes;
+    }
+
+    public List<BitPermission> issueWithinBudget(
+            List<? extends Enum<?>> permissions, TokenFormat tokenFormat, int maxBytes) {
+        final var bitPermissions = getBitPermissions(permissions);
+        final var encodedSize = tokenFormat.encodedSize(bitPermissions);
+        if (encodedSize > maxBytes) {
+            final var domainSizes = new HashMap<String, Integer>();
+            bitPermissions.forEach(bitPermission ->
+                    domainSizes.put(bitPermission.domain(), tokenFormat.encodedSize(bitPermission)));
+            throw new TokenSizeExceededException(maxBytes, encodedSize, domainSizes);
+        }
+        return bitPermissions;
+    }
+
+    protected static boolean isDigitBitSet(String bitmask, int digitIndex, int digitMask) {
+        final var position = bitmask.length() - 1 - digitIndex;
+        if (position < 0) {
+            return false;
+        }
+        return (Base32BitmaskCodec.digit(bitmask.charAt(position)) & digitMask) != 0;
+    }
+
+    public ParsedToken parse(List<BitPermission> bitPermissions) {
+        final var domainTokens = new ArrayList<ParsedToken.DomainToken>();
+        final var parsedDomains = new HashSet<String>();
+        for (final var bitPermission : bitPermissions) {
+            if (!isValidBitPermission(bitPermission) || !parsedDomains.add(bitPermission.domain())) {
+                continue;
+            }
+            final var enumClassPermissions = domainClassPermissionMap.get(bitPermission.domain());
+            if (enumClassPermissions != null) {
+                domainTokens.add(new ParsedToken.DomainToken(
+                        enumClassPermissions, bitPermission.bitmask(), bitPermission.revision()));
+            }
+        }
+        return new ParsedToken(domainTokens);
+    }
+
+    public ParsedToken.Builder newParsedTokenBuilder() {
+        return new ParsedToken.Builder(domainClassPermissionMap);
+    }
+
+    public ScopedBitPermissions getScopedBitPermissions(
+            Map<String, ? extends List<? extends Enum<?>>> scopedPermissions) {
+        final var dictionary = new ArrayList<BitPermission>();
+        final var dictionaryIndexes = new HashMap<BitPermission, Integer>();
+        final var scopes = new HashMap<String, List<Integer>>(scopedPermissions.size());
+        scopedPermissions.forEach((scope, permissions) -> {
+            final var indexes = new ArrayList<Integer>();
+            for (final var bitPermission : getBitPermissions(permissions)) {
+                indexes.add(dictionaryIndexes.computeIfAbsent(bitPermission, key -> {
+                    dictionary.add(key);
+                    return dictionary.size() - 1;
+                }));
+            }
+            scopes.put(scope, List.copyOf(indexes));
+        });
+        return new ScopedBitPermissions(List.copyOf(dictionary), Map.copyOf(scopes));
+    }
+
+    public ScopedToken parse(ScopedBitPermissions scopedBitPermissions) {
+        final var dictionary = scopedBitPermissions.dictionary();
+        final var dictionaryTokens = new ParsedToken.DomainToken[dictionary.size()];
+        for (int index = 0; index < dictionaryTokens.length; index++) {
+            final var bitPermission = dictionary.get(index);
+            if (isValidBitPermission(bitPermission)) {
+                final var enumClassPermissions = domainClassPermissionMap.get(bitPermission.domain());
+                if (enumClassPermissions != null) {
+                    dictionaryTokens[index] = new ParsedToken.DomainToken(
+                            enumClassPermissions, bitPermission.bitmask(), bitPermission.revision());
+                }
+            }
+        }
+        final var parsedTokens = new HashMap<String, ParsedToken>(scopedBitPermissions.scopes().size());
+        scopedBitPermissions.scopes().forEach((scope, indexes) -> {
+            final var domainTokens = new ArrayList<ParsedToken.DomainToken>(indexes.size());
+            final var parsedDomains = new HashSet<String>();
+            for (final var index : indexes) {
+                if (index == null || index < 0 || index >= dictionaryTokens.length) {
+                    throw new IllegalArgumentException(
+                            "Dictionary index " + index + " is out of range in scope: " + scope);
+                }
+                final var bitPermission = dictionary.get(index);
+                if (!isValidBitPermission(bitPermission) || !parsedDomains.add(bitPermission.domain())) {
+                    continue;
+                }
+                if (dictionaryTokens[index] != null) {
+                    domainTokens.add(dictionaryTokens[index]);
+                }
+            }
+            parsedTokens.put(scope, new ParsedToken(domainTokens));
+        });
+        return new ScopedToken(parsedTokens);
+    }
+
+    protected static boolean isValidBitPermission(BitPermission bitPermission) {
+        return bitPermission != null
+                && bitPermission.domain() != null && !bitPermission.domain().isBlank()
+                && bitPermission.bitmask() != null && !bitPermission.bitmask().isBlank()
+                && bitPermission.revision() != null && bitPermission.revision() > 0;
     }
 
     public List<? extends Enum<?>> getPermissions(List<BitPermission> bitPermissions) {
-        return bitPermissions.stream()
-                .distinct()
-                .map(this::getPermissionsFromSingleBitPermission)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        return getPermissions(parse(bitPermissions));
     }
 
-    protected List<? extends Enum<?>> getPermissionsFromSingleBitPermission(BitPermission bitPermission) {
-        final var permissionList = Optional.ofNullable(bitPermission)
-                .filter(bp -> bp.domain() != null && !bp.domain().isBlank()
-                        && bp.bitmask() != null && !bp.bitmask().isBlank()
-                        && bp.revision() != null && bp.revision() > 0)
-                .map(BitPermission::domain)
-                .map(domainClassPermissionMap::get)
-                .map(EnumClassPermissions::permissionList)
-                .orElseGet(Collections::emptyList);
-        if (permissionList.isEmpty()) {
-            return Collections.emptyList();
+    public List<? extends Enum<?>> getPermissions(ParsedToken parsedToken) {
+        final var permissions = new ArrayList<Enum<?>>();
+        parsedToken.domainTokens().forEach(domainToken ->
+                domainToken.enumClassPermissions().addPermissions(domainToken.bitSet(), permissions));
+        return permissions;
+    }
+
+    public PermissionSet getPermissionSet(List<BitPermission> bitPermissions) {
+        return getPermissionSet(parse(bitPermissions));
+    }
+
+    public PermissionSet getPermissionSet(ParsedToken parsedToken) {
+        return new PermissionSet(this, parsedToken);
+    }
+
+    public <T extends Enum<T>> EnumSet<T> getPermissions(Class<T> enumClass, List<BitPermission> bitPermissions) {
+        final var domainMember = domainMemberLookup.get(enumClass);
+        if (domainMember == null) {
+            return EnumSet.noneOf(enumClass);
         }
-        final var bitmask = new BigInteger(bitPermission.bitmask(), BITMASK_RADIX);
-        return permissionList
-                .stream()
-                .filter(permission -> {
-                    final var permissionBitmask = BASE_BIG_INT.pow(permission.ordinal());
-                    return bitmask.and(permissionBitmask).equals(permissionBitmask);
-                })
-                .collect(toList());
+        final var enumClassPermissions = domainMember.enumClassPermissions;
+        for (final var bitPermission : bitPermissions) {
+            if (isValidBitPermission(bitPermission) && enumClassPermissions.domain.equals(bitPermission.domain())) {
+                return domainMember.toEnumSet(
+                        enumClass, enumClassPermissions.decode(bitPermission.bitmask(), bitPermission.revision()));
+            }
+        }
+        return EnumSet.noneOf(enumClass);
+    }
+
+    public <T extends Enum<T>> EnumSet<T> getPermissions(Class<T> enumClass, ParsedToken parsedToken) {
+        final var domainMember = domainMemberLookup.get(enumClass);
+        final var domainToken = domainMember == null
+                ? null
+                : parsedToken.getDomainToken(domainMember.enumClassPermissions);
+        if (domainToken == null) {
+            return EnumSet.noneOf(enumClass);
+        }
+        return domainMember.toEnumSet(enumClass, domainToken.bitSet());
     }
 
     public boolean checkHasPermissions(List<? extends Enum<?>> permissions, List<BitPermission> bitPermissions) {
+        return check(compile(permissions), bitPermissions);
+    }
+
+    public PermissionRequirement compile(List<? extends Enum<?>> permissions) {
         final var knownPermissions = getKnownPermissions(permissions);
         if (knownPermissions.isEmpty() || (knownPermissions.size() != permissions.size())) {
-            return false;
+            return PermissionRequirement.UNSATISFIABLE;
         }
-        final var domainBitPermissionMap = bitPermissions.stream()
-                .filter(Objects::nonNull)
-                .filter(bitPermission -> bitPermission.domain() != null && !bitPermission.domain().isBlank())
-                .collect(toMap(BitPermission::domain, Function.identity()));
-        return getClassPermissionOrdinalMap(knownPermissions)
+        return new PermissionRequirement(getDomainBitSetMap(knownPermissions)
                 .entrySet()
                 .stream()
-                .allMatch(classPermissionOrdinalEntry ->
-                        checkPermissionsArePresent(classPermissionOrdinalEntry, domainBitPermissionMap));
+                .map(domainBitSet -> PermissionRequirement.createDomainRequirement(
+                        domainBitSet.getKey(), domainBitSet.getValue()))
+                .toList());
     }
 
-    protected boolean checkPermissionsArePresent(Map.Entry<Class<?>, Set<Integer>> classPermissionOrdinalEntry,
-                                                 Map<String, BitPermission> domainBitPermissionMap) {
-        final var permissionClass = classPermissionOrdinalEntry.getKey();
-        final var permissionOrdinals = classPermissionOrdinalEntry.getValue();
-        final var domain = permissionClass.getSimpleName();
-        final var permissionBitmask = permissionOrdinals
-                .stream()
-                .map(BASE_BIG_INT::pow)
-                .reduce(ZERO_BIG_INT, BigInteger::add);
-
-        return Optional.ofNullable(domainBitPermissionMap.get(domain))
-                .map(BitPermission::bitmask)
-                .map(bitmask -> {
-                    final var bitPermissionBitmask = new BigInteger(bitmask, BITMASK_RADIX);
-                    return bitPermissionBitmask.and(permissionBitmask).equals(permissionBitmask);
-                })
-                .orElse(false);
+    public boolean check(PermissionRequirement requirement, List<BitPermission> bitPermissions) {
+        if (!requirement.isSatisfiable()) {
+            return false;
+        }
+        for (final var domainRequirement : requirement.domainRequirements()) {
+            final var bitPermission =
+                    findBitPermission(domainRequirement.enumClassPermissions().domain, bitPermissions);
+            if (bitPermission == null || !domainRequirement.isSatisfiedBy(bitPermission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean checkHasPermissions(List<? extends Enum<?>> permissions, ParsedToken parsedToken) {
+        return check(compile(permissions), parsedToken);
+    }
+
+    public boolean check(PermissionRequirement requirement, ParsedToken parsedToken) {
+        if (!requirement.isSatisfiable()) {
+            return false;
+        }
+        for (final var domainRequirement : requirement.domainRequirements()) {
+            final var domainToken = parsedToken.getDomainToken(domainRequirement.enumClassPermissions());
+            if (domainToken == null || !domainToken.containsAll(domainRequirement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static BitPermission findBitPermission(String domain, List<BitPermission> bitPermissions) {
+        for (final var bitPermission : bitPermissions) {
+            if (isValidBitPermission(bitPermission) && domain.equals(bitPermission.domain())) {
+                return bitPermission;
+            }
+        }
+        return null;
     }
 
     public <T extends Enum<T>> boolean checkHasPermission(T permission, List<BitPermission> bitPermissions) {
-        final var permissionClass = permission.getClass();
-        final var domain = permissionClass.getSimpleName();
-        final var enumClassPermissions = domainClassPermissionMap.get(domain);
+        final var domainMember = getDomainMember(permission);
+        if (domainMember == null) {
+            return false;
+        }
+
+        final var enumClassPermissions = domainMember.enumClassPermissions;
+        final var bitPermission = findBitPermission(enumClassPermissions.domain, bitPermissions);
+        return bitPermission != null && enumClassPermissions.isSet(
+                bitPermission.bitmask(), bitPermission.revision(), domainMember.index(permission));
+    }
+
+    public <T extends Enum<T>> boolean checkHasPermission(T permission, ParsedToken parsedToken) {
+        return hasPermission(permission, parsedToken);
+    }
+
+    public <T extends Enum<T>> boolean checkHasPermission(String scope, T permission, ScopedToken scopedToken) {
+        return hasPermission(permission, scopedToken.getParsedToken(scope));
+    }
+
+    public BitSet checkEach(List<? extends Enum<?>> permissions, List<BitPermission> bitPermissions) {
+        return checkEach(permissions, parse(bitPermissions));
+    }
 
-        if (enumClassPermissions == null
-                || enumClassPermissions.enumClass != permissionClass) {
+    public BitSet checkEach(List<? extends Enum<?>> permissions, ParsedToken parsedToken) {
+        final var result = new BitSet(permissions.size());
+        for (int i = 0; i < permissions.size(); i++) {
+            if (hasPermission(permissions.get(i), parsedToken)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    protected boolean hasPermission(Enum<?> permission, ParsedToken parsedToken) {
+        final var domainMember = getDomainMember(permission);
+        if (domainMember == null) {
             return false;
         }
+        final var enumClassPermissions = domainMember.enumClassPermissions;
+        final var domainToken = parsedToken.getDomainToken(enumClassPermissions);
+        return domainToken != null && domainToken.isSet(domainMember.index(permission));
+    }
 
-        return bitPermissions.stream()
-                .filter(Objects::nonNull)
-                .filter(bitPermission -> bitPermission.domain().equals(domain))
-                .findFirst()
-                .map(bitPermission -> {
-                    final var permissionBitmask = BASE_BIG_INT.pow(permission.ordinal());
-                    final var bitmask = new BigInteger(bitPermission.bitmask(), BITMASK_RADIX);
-                    return bitmask.and(permissionBitmask).equals(permissionBitmask);
-                })
-                .orElse(false);
+    protected record DomainMember(EnumClassPermissions enumClassPermissions, int offset, int size) {
+
+        protected int index(Enum<?> permission) {
+            return offset + permission.ordinal();
+        }
+
+        protected <T extends Enum<T>> EnumSet<T> toEnumSet(Class<T> enumClass, PermissionBitSet bitSet) {
+            final var permissions = EnumSet.noneOf(enumClass);
+            final var permissionList = enumClassPermissions.permissionList;
+            final var end = offset + size;
+            for (int index = bitSet.nextSetBit(offset);
+                 index >= 0 && index < end;
+                 index = bitSet.nextSetBit(index + 1)) {
+                permissions.add(enumClass.cast(permissionList.get(index)));
+            }
+            return permissions;
+        }
     }
 
-    protected record EnumClassPermissions(Class<?> enumClass, List<? extends Enum<?>> permissionList) {
+    protected record EnumClassPermissions(String domain,
+                                          Class<?> enumClass,
+                                          List<? extends Enum<?>> permissionList,
+                                          List<Class<?>> memberClasses,
+                                          int[] memberOffsets,
+                                          int[] wordIndexes,
+                                          long[] wordMasks,
+                                          int[] digitIndexes,
+                                          int[] digitMasks,
+                                          PermissionLayout layout) {
+
+        public EnumClassPermissions(Class<?> enumClass, List<? extends Enum<?>> permissionList) {
+            this(enumClass, permissionList, null);
+        }
+
+        public EnumClassPermissions(Class<?> enumClass,
+                                    List<? extends Enum<?>> permissionList,
+                                    PermissionLayout layout) {
+            this(enumClass.getSimpleName(), enumClass, permissionList, List.of(enumClass), new int[]{0}, layout);
+        }
+
+        public EnumClassPermissions(String domain, List<Class<? extends Enum<?>>> memberClasses) {
+            this(domain,
+                    memberClasses.get(0),
+                    createPermissionList(memberClasses),
+                    List.copyOf(memberClasses),
+                    createMemberOffsets(memberClasses),
+                    null);
+        }
+
+        private EnumClassPermissions(String domain,
+                                     Class<?> enumClass,
+                                     List<? extends Enum<?>> permissionList,
+                                     List<Class<?>> memberClasses,
+                                     int[] memberOffsets,
+                                     PermissionLayout layout) {
+            this(domain,
+                    enumClass,
+                    permissionList,
+                    memberClasses,
+                    memberOffsets,
+                    createWordIndexes(permissionList.size()),
+                    createWordMasks(permissionList.size()),
+                    createDigitIndexes(permissionList.size()),
+                    createDigitMasks(permissionList.size()),
+                    layout);
+        }
+
+        protected static List<? extends Enum<?>> createPermissionList(List<Class<? extends Enum<?>>> memberClasses) {
+            final var permissionList = new ArrayList<Enum<?>>();
+            memberClasses.forEach(memberClass -> permissionList.addAll(Arrays.asList(memberClass.getEnumConstants())));
+            return Collections.unmodifiableList(permissionList);
+        }
+
+        protected static int[] createMemberOffsets(List<Class<? extends Enum<?>>> memberClasses) {
+            final var memberOffsets = new int[memberClasses.size()];
+            for (int memberIndex = 1; memberIndex < memberOffsets.length; memberIndex++) {
+                memberOffsets[memberIndex] = memberOffsets[memberIndex - 1]
+                        + memberClasses.get(memberIndex - 1).getEnumConstants().length;
+            }
+            return memberOffsets;
+        }
+
+        protected static int[] createWordIndexes(int size) {
+            final var wordIndexes = new int[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                wordIndexes[ordinal] = PermissionBitSet.wordIndex(ordinal);
+            }
+            return wordIndexes;
+        }
+
+        protected static long[] createWordMasks(int size) {
+            final var wordMasks = new long[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                wordMasks[ordinal] = 1L << ordinal;
+            }
+            return wordMasks;
+        }
+
+        protected static int[] createDigitIndexes(int size) {
+            final var digitIndexes = new int[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                digitIndexes[ordinal] = ordinal / BITMASK_DIGIT_BITS;
+            }
+            return digitIndexes;
+        }
+
+        protected static int[] createDigitMasks(int size) {
+            final var digitMasks = new int[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                digitMasks[ordinal] = 1 << (ordinal % BITMASK_DIGIT_BITS);
+            }
+            return digitMasks;
+        }
+
+        protected PermissionBitSet newBitSet() {
+            return new PermissionBitSet(permissionList.size());
+        }
+
+        protected void set(PermissionBitSet bitSet, int ordinal) {
+            bitSet.set(wordIndexes[ordinal], wordMasks[ordinal]);
+        }
+
+        protected boolean isSet(PermissionBitSet bitSet, int ordinal) {
+            return bitSet.get(wordIndexes[ordinal], wordMasks[ordinal]);
+        }
+
+        protected PermissionBitSet decode(CharSequence bitmask, Integer revision) {
+            if (PermissionLayout.isLayoutBitmask(bitmask)) {
+                final var start = PermissionLayout.versionEnd(bitmask);
+                final var version = PermissionLayout.readVersion(bitmask, start);
+                final var physicalBitSet = BitmaskEncoding.of(bitmask, start)
+                        .decode(bitmask, start, universe(revision), permissionList.size());
+                return requireLayout().toLogical(version, physicalBitSet);
+            }
+            return BitmaskEncoding.of(bitmask).decode(bitmask, universe(revision), permissionList.size());
+        }
+
+        protected PermissionLayout requireLayout() {
+            if (layout == null) {
+                throw new IllegalArgumentException("No permission layout for domain: " + domain);
+            }
+            return layout;
+        }
+
+        protected void addPermissions(PermissionBitSet bitSet, List<? super Enum<?>> permissions) {
+            for (int ordinal = bitSet.nextSetBit(0);
+                 ordinal >= 0 && ordinal < permissionList.size();
+                 ordinal = bitSet.nextSetBit(ordinal + 1)) {
+                permissions.add(permissionList.get(ordinal));
+            }
+        }
+
+
+        protected boolean isSet(String bitmask, Integer revision, int ordinal) {
+            if (PermissionLayout.isLayoutBitmask(bitmask)) {
+                final var start = PermissionLayout.versionEnd(bitmask);
+                final var version = PermissionLayout.readVersion(bitmask, start);
+                return BitmaskEncoding.of(bitmask, start)
+                        .isSet(bitmask, start, universe(revision), requireLayout().physicalIndex(version, ordinal));
+            }
+            final var bitmaskEncoding = BitmaskEncoding.of(bitmask);
+            if (bitmaskEncoding == BitmaskEncoding.BASE32) {
+                return isDigitBitSet(bitmask, digitIndexes[ordinal], digitMasks[ordinal]);
+            }
+            return bitmaskEncoding.isSet(bitmask, universe(revision), ordinal);
+        }
+
+        protected static int universe(Integer revision) {
+            return revision == null ? 0 : revision;
+        }
     }
 
 }
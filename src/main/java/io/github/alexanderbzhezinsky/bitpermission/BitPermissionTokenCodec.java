@@ -0,0 +1,99 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class BitPermissionTokenCodec {
+
+    public static final char FIELD_DIVIDER = '.';
+    public static final char ENTRY_DIVIDER = '~';
+
+    private BitPermissionTokenCodec() {
+    }
+
+    public static String encode(List<BitPermission> bitPermissions) {
+        final var builder = new StringBuilder(encodedLength(bitPermissions));
+        for (final var bitPermission : bitPermissions) {
+            if (!builder.isEmpty()) {
+                builder.append(ENTRY_DIVIDER);
+            }
+            builder.append(bitPermission.domain())
+                    .append(FIELD_DIVIDER)
+                    .append(bitPermission.revision().intValue())
+                    .append(FIELD_DIVIDER)
+                    .append(bitPermission.bitmask());
+        }
+        return builder.toString();
+    }
+
+    public static int encodedLength(List<BitPermission> bitPermissions) {
+        var length = Math.max(0, bitPermissions.size() - 1);
+        for (final var bitPermission : bitPermissions) {
+            requireValid(bitPermission);
+            length += bitPermission.domain().length() + 1
+                    + TokenFormat.stringSize(bitPermission.revision()) + 1
+                    + bitPermission.bitmask().length();
+        }
+        return length;
+    }
+
+    public static List<BitPermission> decode(CharSequence token) {
+        final var bitPermissions = new ArrayList<BitPermission>();
+        final var length = token.length();
+        var position = 0;
+        while (position < length) {
+            final var domainEnd = indexOf(token, FIELD_DIVIDER, position, length);
+            final var revisionEnd = indexOf(token, FIELD_DIVIDER, domainEnd + 1, length);
+            final var bitmaskEnd = indexOf(token, ENTRY_DIVIDER, revisionEnd + 1, length);
+            if (domainEnd == position || domainEnd == length || revisionEnd == length || bitmaskEnd == revisionEnd + 1) {
+                throw new IllegalArgumentException("Malformed bit permission token: " + token);
+            }
+            final var revision = Integer.parseInt(token, domainEnd + 1, revisionEnd, 10);
+            bitPermissions.add(new BitPermission(
+                    token.subSequence(position, domainEnd).toString(),
+                    revision,
+                    token.subSequence(revisionEnd + 1, bitmaskEnd).toString()));
+            position = bitmaskEnd + 1;
+            if (position == length) {
+                throw new IllegalArgumentException("Malformed bit permission token: " + token);
+            }
+        }
+        return bitPermissions;
+    }
+
+    private static void requireValid(BitPermission bitPermission) {
+        Objects.requireNonNull(bitPermission);
+        Objects.requireNonNull(bitPermission.domain());
+        Objects.requireNonNull(bitPermission.revision());
+        Objects.requireNonNull(bitPermission.bitmask());
+        if (bitPermission.domain().isEmpty() || bitPermission.bitmask().isEmpty()) {
+            throw new IllegalArgumentException("Empty domain or bitmask: " + bitPermission);
+        }
+        requireNoDividers(bitPermission.domain());
+        requireNoDividers(bitPermission.bitmask());
+    }
+
+    private static void requireNoDividers(String value) {
+        for (int position = 0; position < value.length(); position++) {
+            final var symbol = value.charAt(position);
+            if (symbol == FIELD_DIVIDER || symbol == ENTRY_DIVIDER) {
+                throw new IllegalArgumentException("Divider symbol in bit permission field: " + value);
+            }
+        }
+    }
+
+    private static int indexOf(CharSequence token, char symbol, int start, int end) {
+        for (int position = start; position < end; position++) {
+            final var current = token.charAt(position);
+            if (current == symbol) {
+                return position;
+            }
+            if (current == FIELD_DIVIDER || current == ENTRY_DIVIDER) {
+                throw new IllegalArgumentException("Malformed bit permission token: " + token);
+            }
+        }
+        return end;
+    }
+
+}
@@ -0,0 +1,6 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.List;
+
+public record BitPermissions(List<BitPermission> bitPermissions) {
+}
@@ -0,0 +1,22 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+interface BitmaskCodec {
+
+    int encodedLength(PermissionBitSet bitSet, int universe);
+
+    String encode(String prefix, PermissionBitSet bitSet, int universe);
+
+    PermissionBitSet decode(CharSequence bitmask, int start, int end, int universe, int nbits);
+
+    boolean isSet(CharSequence bitmask, int start, int end, int universe, int bitIndex);
+
+    default boolean containsAll(CharSequence bitmask, int start, int end, int universe, int[] bitIndexes) {
+        for (final var bitIndex : bitIndexes) {
+            if (!isSet(bitmask, start, end, universe, bitIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+public enum BitmaskEncoding {
+
+    BASE32("", RadixBitmaskCodec.BASE32),
+    BASE64URL("w", RadixBitmaskCodec.BASE64URL),
+    SPARSE("x", SparseBitmaskCodec.INSTANCE),
+    COMPLEMENT("y", ComplementBitmaskCodec.INSTANCE),
+    CHUNKED("z", ChunkedBitmaskCodec.INSTANCE);
+
+    private final String prefix;
+    private final BitmaskCodec codec;
+
+    BitmaskEncoding(String prefix, BitmaskCodec codec) {
+        this.prefix = prefix;
+        this.codec = codec;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public static BitmaskEncoding of(CharSequence bitmask) {
+        return of(bitmask, 0);
+    }
+
+    static BitmaskEncoding of(CharSequence bitmask, int start) {
+        if (bitmask.length() <= start) {
+            return BASE32;
+        }
+        return switch (bitmask.charAt(start)) {
+            case 'w' -> BASE64URL;
+            case 'x' -> SPARSE;
+            case 'y' -> COMPLEMENT;
+            case 'z' -> CHUNKED;
+            default -> BASE32;
+        };
+    }
+
+    int encodedLength(PermissionBitSet bitSet, int universe) {
+        final var codecLength = codec.encodedLength(bitSet, universe);
+        return codecLength == Integer.MAX_VALUE ? codecLength : prefix.length() + codecLength;
+    }
+
+    String encode(PermissionBitSet bitSet, int universe) {
+        return codec.encode(prefix, bitSet, universe);
+    }
+
+    PermissionBitSet decode(CharSequence bitmask, int universe, int nbits) {
+        return decode(bitmask, 0, universe, nbits);
+    }
+
+    PermissionBitSet decode(CharSequence bitmask, int start, int universe, int nbits) {
+        return codec.decode(bitmask, start + prefix.length(), bitmask.length(), universe, nbits);
+    }
+
+    boolean isSet(CharSequence bitmask, int universe, int bitIndex) {
+        return isSet(bitmask, 0, universe, bitIndex);
+    }
+
+    boolean isSet(CharSequence bitmask, int start, int universe, int bitIndex) {
+        return codec.isSet(bitmask, start + prefix.length(), bitmask.length(), universe, bitIndex);
+    }
+
+    boolean containsAll(CharSequence bitmask, int universe, int[] bitIndexes) {
+        return containsAll(bitmask, 0, universe, bitIndexes);
+    }
+
+    boolean containsAll(CharSequence bitmask, int start, int universe, int[] bitIndexes) {
+        return codec.containsAll(bitmask, start + prefix.length(), bitmask.length(), universe, bitIndexes);
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.appendVarint;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.readVarint;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.varintEnd;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.varintLength;
+
+final class ChunkedBitmaskCodec implements BitmaskCodec {
+
+    static final ChunkedBitmaskCodec INSTANCE = new ChunkedBitmaskCodec();
+
+    private static final RadixBitmaskCodec ALPHABET = RadixBitmaskCodec.BASE64URL;
+    private static final int CHUNK_BITS = Long.SIZE;
+    private static final int DIGIT_BITS = 6;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+    private static final int BITMAP_LENGTH = (CHUNK_BITS + DIGIT_BITS - 1) / DIGIT_BITS;
+    private static final int TYPE_SHIFT = 4;
+    private static final int COUNT_MASK = (1 << TYPE_SHIFT) - 1;
+    private static final int MAX_COUNT = COUNT_MASK + 1;
+    private static final int BITMAP = 0;
+    private static final int ARRAY = 1;
+    private static final int RUN = 2;
+
+    private ChunkedBitmaskCodec() {
+    }
+
+    @Override
+    public int encodedLength(PermissionBitSet bitSet, int universe) {
+        final var words = bitSet.words();
+        var length = 0;
+        var previous = -1;
+        for (int chunkIndex = 0; chunkIndex < words.length; chunkIndex++) {
+            final var word = words[chunkIndex];
+            if (word != 0) {
+                length += varintLength(chunkIndex - previous - 1) + 1 + payloadLength(containerType(word), word);
+                previous = chunkIndex;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public String encode(String prefix, PermissionBitSet bitSet, int universe) {
+        final var builder = new StringBuilder(prefix.length() + encodedLength(bitSet, universe)).append(prefix);
+        final var words = bitSet.words();
+        var previous = -1;
+        for (int chunkIndex = 0; chunkIndex < words.length; chunkIndex++) {
+            final var word = words[chunkIndex];
+            if (word != 0) {
+                appendVarint(builder, chunkIndex - previous - 1);
+                switch (containerType(word)) {
+                    case ARRAY -> appendArray(builder, word);
+                    case RUN -> appendRuns(builder, word);
+                    default -> appendBitmap(builder, word);
+                }
+                previous = chunkIndex;
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public PermissionBitSet decode(CharSequence bitmask, int start, int end, int universe, int nbits) {
+        final var bitSet = new PermissionBitSet(nbits);
+        var chunkIndex = -1L;
+        var position = start;
+        while (position < end) {
+            final var varintEnd = varintEnd(bitmask, position, end);
+            chunkIndex += readVarint(bitmask, position, varintEnd) + 1L;
+            if (chunkIndex * CHUNK_BITS >= nbits) {
+                break;
+            }
+            final var containerEnd = containerEnd(bitmask, varintEnd, end);
+            bitSet.set((int) chunkIndex, readContainer(bitmask, varintEnd, containerEnd));
+            position = containerEnd;
+        }
+        return bitSet.truncate(nbits);
+    }
+
+    @Override
+    public boolean isSet(CharSequence bitmask, int start, int end, int universe, int bitIndex) {
+        final var targetChunkIndex = bitIndex / CHUNK_BITS;
+        var chunkIndex = -1L;
+        var position = start;
+        while (position < end) {
+            final var varintEnd = varintEnd(bitmask, position, end);
+            chunkIndex += readVarint(bitmask, position, varintEnd) + 1L;
+            if (chunkIndex > targetChunkIndex) {
+                return false;
+            }
+            final var containerEnd = containerEnd(bitmask, varintEnd, end);
+            if (chunkIndex == targetChunkIndex) {
+                return (readContainer(bitmask, varintEnd, containerEnd) & (1L << bitIndex)) != 0;
+            }
+            position = containerEnd;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(CharSequence bitmask, int start, int end, int universe, int[] bitIndexes) {
+        var chunkIndex = -1L;
+        var position = start;
+        var i = 0;
+        while (i < bitIndexes.length) {
+            final var targetChunkIndex = bitIndexes[i] / CHUNK_BITS;
+            var requiredWord = 0L;
+            while (i < bitIndexes.length && bitIndexes[i] / CHUNK_BITS == targetChunkIndex) {
+                requiredWord |= 1L << bitIndexes[i++];
+            }
+            var containerStart = position;
+            do {
+                if (position >= end) {
+                    return false;
+                }
+                containerStart = varintEnd(bitmask, position, end);
+                chunkIndex += readVarint(bitmask, position, containerStart) + 1L;
+                position = containerEnd(bitmask, containerStart, end);
+            } while (chunkIndex < targetChunkIndex);
+            if (chunkIndex != targetChunkIndex
+                    || (readContainer(bitmask, containerStart, position) & requiredWord) != requiredWord) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int containerType(long word) {
+        final var count = Long.bitCount(word);
+        final var runs = Long.bitCount(word & ~(word << 1));
+        final var arrayLength = count <= MAX_COUNT ? count : Integer.MAX_VALUE;
+        final var runLength = runs <= MAX_COUNT ? 2 * runs : Integer.MAX_VALUE;
+        if (runLength < arrayLength && runLength < BITMAP_LENGTH) {
+            return RUN;
+        }
+        return arrayLength < BITMAP_LENGTH ? ARRAY : BITMAP;
+    }
+
+    private static int payloadLength(int type, long word) {
+        return switch (type) {
+            case ARRAY -> Long.bitCount(word);
+            case RUN -> 2 * Long.bitCount(word & ~(word << 1));
+            default -> BITMAP_LENGTH;
+        };
+    }
+
+    private static void appendBitmap(StringBuilder builder, long word) {
+        builder.append(ALPHABET.symbol(BITMAP << TYPE_SHIFT));
+        for (int digitIndex = 0; digitIndex < BITMAP_LENGTH; digitIndex++) {
+            builder.append(ALPHABET.symbol((int) (word >>> (digitIndex * DIGIT_BITS)) & DIGIT_MASK));
+        }
+    }
+
+    private static void appendArray(StringBuilder builder, long word) {
+        builder.append(ALPHABET.symbol(ARRAY << TYPE_SHIFT | (Long.bitCount(word) - 1)));
+        for (var remaining = word; remaining != 0; remaining &= remaining - 1) {
+            builder.append(ALPHABET.symbol(Long.numberOfTrailingZeros(remaining)));
+        }
+    }
+
+    private static void appendRuns(StringBuilder builder, long word) {
+        builder.append(ALPHABET.symbol(RUN << TYPE_SHIFT | (Long.bitCount(word & ~(word << 1)) - 1)));
+        var remaining = word;
+        while (remaining != 0) {
+            final var runStart = Long.numberOfTrailingZeros(remaining);
+            final var runEnd = Long.numberOfTrailingZeros(~remaining & (-1L << runStart));
+            builder.append(ALPHABET.symbol(runStart)).append(ALPHABET.symbol(runEnd - runStart - 1));
+            remaining = runEnd == CHUNK_BITS ? 0 : remaining & (-1L << runEnd);
+        }
+    }
+
+    private static int containerEnd(CharSequence bitmask, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Truncated chunked bitmask: " + bitmask);
+        }
+        final var header = ALPHABET.digit(bitmask.charAt(start));
+        final var count = (header & COUNT_MASK) + 1;
+        final var containerEnd = start + 1 + switch (header >>> TYPE_SHIFT) {
+            case BITMAP -> BITMAP_LENGTH;
+            case ARRAY -> count;
+            case RUN -> 2 * count;
+            default -> throw new NumberFormatException("Illegal chunked bitmask container: " + bitmask);
+        };
+        if (containerEnd > end) {
+            throw new NumberFormatException("Truncated chunked bitmask: " + bitmask);
+        }
+        return containerEnd;
+    }
+
+    private static long readContainer(CharSequence bitmask, int start, int end) {
+        var word = 0L;
+        switch (ALPHABET.digit(bitmask.charAt(start)) >>> TYPE_SHIFT) {
+            case BITMAP -> {
+                for (int position = start + 1; position < end; position++) {
+                    word |= (long) ALPHABET.digit(bitmask.charAt(position)) << ((position - start - 1) * DIGIT_BITS);
+                }
+            }
+            case ARRAY -> {
+                for (int position = start + 1; position < end; position++) {
+                    word |= 1L << ALPHABET.digit(bitmask.charAt(position));
+                }
+            }
+            default -> {
+                for (int position = start + 1; position < end; position += 2) {
+                    final var runStart = ALPHABET.digit(bitmask.charAt(position));
+                    final var runLength = ALPHABET.digit(bitmask.charAt(position + 1)) + 1;
+                    if (runStart + runLength > CHUNK_BITS) {
+                        throw new NumberFormatException("Chunked bitmask run is out of chunk: " + bitmask);
+                    }
+                    word |= (runLength == CHUNK_BITS ? -1L : (1L << runLength) - 1) << runStart;
+                }
+            }
+        }
+        return word;
+    }
+
+}
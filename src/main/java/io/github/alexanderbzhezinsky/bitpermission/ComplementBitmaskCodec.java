@@ -0,0 +1,88 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.appendVarint;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.readVarint;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.varintEnd;
+import static io.github.alexanderbzhezinsky.bitpermission.SparseBitmaskCodec.varintLength;
+
+final class ComplementBitmaskCodec implements BitmaskCodec {
+
+    static final ComplementBitmaskCodec INSTANCE = new ComplementBitmaskCodec();
+
+    private ComplementBitmaskCodec() {
+    }
+
+    @Override
+    public int encodedLength(PermissionBitSet bitSet, int universe) {
+        if (bitSet.length() > universe) {
+            return Integer.MAX_VALUE;
+        }
+        var length = 0;
+        var previous = -1;
+        for (int bitIndex = bitSet.nextClearBit(0); bitIndex < universe; bitIndex = bitSet.nextClearBit(bitIndex + 1)) {
+            length += varintLength(bitIndex - previous - 1);
+            previous = bitIndex;
+        }
+        return length;
+    }
+
+    @Override
+    public String encode(String prefix, PermissionBitSet bitSet, int universe) {
+        if (bitSet.length() > universe) {
+            throw new IllegalArgumentException(
+                    "Complement bitmask cannot hold bit " + (bitSet.length() - 1) + " of universe " + universe);
+        }
+        final var builder = new StringBuilder(prefix.length() + encodedLength(bitSet, universe)).append(prefix);
+        var previous = -1;
+        for (int bitIndex = bitSet.nextClearBit(0); bitIndex < universe; bitIndex = bitSet.nextClearBit(bitIndex + 1)) {
+            appendVarint(builder, bitIndex - previous - 1);
+            previous = bitIndex;
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public PermissionBitSet decode(CharSequence bitmask, int start, int end, int universe, int nbits) {
+        final var limit = Math.min(universe, nbits);
+        final var bitSet = new PermissionBitSet(nbits);
+        bitSet.set(0, limit);
+        var bitIndex = -1L;
+        var position = start;
+        while (position < end) {
+            final var varintEnd = varintEnd(bitmask, position, end);
+            bitIndex += readVarint(bitmask, position, varintEnd) + 1L;
+            if (bitIndex >= limit) {
+                break;
+            }
+            bitSet.clear((int) bitIndex);
+            position = varintEnd;
+        }
+        return bitSet;
+    }
+
+    @Override
+    public boolean isSet(CharSequence bitmask, int start, int end, int universe, int bitIndex) {
+        return bitIndex < universe && !SparseBitmaskCodec.INSTANCE.isSet(bitmask, start, end, bitIndex);
+    }
+
+    @Override
+    public boolean containsAll(CharSequence bitmask, int start, int end, int universe, int[] bitIndexes) {
+        if (bitIndexes.length > 0 && bitIndexes[bitIndexes.length - 1] >= universe) {
+            return false;
+        }
+        var missingBitIndex = -1L;
+        var position = start;
+        for (final var bitIndex : bitIndexes) {
+            while (missingBitIndex < bitIndex && position < end) {
+                final var varintEnd = varintEnd(bitmask, position, end);
+                missingBitIndex += readVarint(bitmask, position, varintEnd) + 1L;
+                position = varintEnd;
+            }
+            if (missingBitIndex == bitIndex) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
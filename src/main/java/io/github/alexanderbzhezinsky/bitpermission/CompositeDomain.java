@@ -0,0 +1,57 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+public final class CompositeDomain {
+
+    private final String domain;
+    private final List<Class<? extends Enum<?>>> enumClasses;
+
+    public CompositeDomain(String domain, List<Class<? extends Enum<?>>> enumClasses) {
+        Objects.requireNonNull(domain);
+        if (domain.isBlank()) {
+            throw new IllegalArgumentException("Blank composite domain name is not allowed!");
+        }
+        if (!isJavaIdentifier(domain)) {
+            throw new IllegalArgumentException("Composite domain name must be a Java identifier: " + domain);
+        }
+        if (enumClasses.isEmpty()) {
+            throw new IllegalArgumentException("Empty composite domain enum classes list is not allowed!");
+        }
+        final var distinctEnumClasses = new HashSet<Class<?>>();
+        for (final var enumClass : enumClasses) {
+            Objects.requireNonNull(enumClass);
+            if (enumClass.getEnumConstants().length == 0) {
+                throw new IllegalArgumentException("Empty enum classes are not allowed!");
+            }
+            if (!distinctEnumClasses.add(enumClass)) {
+                throw new IllegalArgumentException("Duplicate composite domain enum classes are not allowed!");
+            }
+        }
+        this.domain = domain;
+        this.enumClasses = List.copyOf(enumClasses);
+    }
+
+    private static boolean isJavaIdentifier(String domain) {
+        if (!Character.isJavaIdentifierStart(domain.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < domain.length(); i++) {
+            if (!Character.isJavaIdentifierPart(domain.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public List<Class<? extends Enum<?>>> getEnumClasses() {
+        return enumClasses;
+    }
+
+}
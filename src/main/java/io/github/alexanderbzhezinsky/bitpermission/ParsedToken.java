@@ -0,0 +1,133 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissionService.EnumClassPermissions;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ParsedToken {
+
+    private final List<DomainToken> domainTokens;
+    private final Map<EnumClassPermissions, DomainToken> domainTokenMap;
+
+    ParsedToken(List<DomainToken> domainTokens) {
+        this.domainTokens = List.copyOf(domainTokens);
+        this.domainTokenMap = new IdentityHashMap<>(domainTokens.size());
+        domainTokens.forEach(domainToken -> domainTokenMap.putIfAbsent(domainToken.enumClassPermissions, domainToken));
+    }
+
+    public boolean isEmpty() {
+        return domainTokens.isEmpty();
+    }
+
+    List<DomainToken> domainTokens() {
+        return domainTokens;
+    }
+
+    DomainToken getDomainToken(EnumClassPermissions enumClassPermissions) {
+        return domainTokenMap.get(enumClassPermissions);
+    }
+
+    public static final class Builder {
+
+        private final Map<String, EnumClassPermissions> domainClassPermissionMap;
+        private final List<DomainToken> domainTokens = new ArrayList<>();
+
+        Builder(Map<String, EnumClassPermissions> domainClassPermissionMap) {
+            this.domainClassPermissionMap = domainClassPermissionMap;
+        }
+
+        public boolean add(String domain, Integer revision, CharSequence bitmask) {
+            if (domain == null || domain.isBlank()
+                    || revision == null || revision <= 0
+                    || bitmask == null || isBlank(bitmask)) {
+                return false;
+            }
+            final var enumClassPermissions = domainClassPermissionMap.get(domain);
+            if (enumClassPermissions == null || isAdded(enumClassPermissions)) {
+                return false;
+            }
+            domainTokens.add(new DomainToken(enumClassPermissions, enumClassPermissions.decode(bitmask, revision)));
+            return true;
+        }
+
+        private static boolean isBlank(CharSequence bitmask) {
+            for (int i = 0; i < bitmask.length(); i++) {
+                if (!Character.isWhitespace(bitmask.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isAdded(EnumClassPermissions enumClassPermissions) {
+            for (final var domainToken : domainTokens) {
+                if (domainToken.enumClassPermissions == enumClassPermissions) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public ParsedToken build() {
+            return new ParsedToken(domainTokens);
+        }
+    }
+
+    static final class DomainToken {
+
+        private final EnumClassPermissions enumClassPermissions;
+        private final String bitmask;
+        private final Integer revision;
+        private volatile PermissionBitSet bitSet;
+
+        DomainToken(EnumClassPermissions enumClassPermissions, String bitmask, Integer revision) {
+            this.enumClassPermissions = enumClassPermissions;
+            this.bitmask = bitmask;
+            this.revision = revision;
+        }
+
+        DomainToken(EnumClassPermissions enumClassPermissions, PermissionBitSet bitSet) {
+            this(enumClassPermissions, null, null);
+            this.bitSet = bitSet;
+        }
+
+        EnumClassPermissions enumClassPermissions() {
+            return enumClassPermissions;
+        }
+
+        boolean isSet(int ordinal) {
+            final var decoded = bitSet;
+            if (decoded == null && isRadixBitmask()) {
+                return enumClassPermissions.isSet(bitmask, revision, ordinal);
+            }
+            return enumClassPermissions.isSet(decoded == null ? bitSet() : decoded, ordinal);
+        }
+
+        boolean containsAll(PermissionRequirement.DomainRequirement domainRequirement) {
+            final var decoded = bitSet;
+            if (decoded == null && isRadixBitmask()) {
+                return domainRequirement.isSatisfiedBy(bitmask, revision);
+            }
+            return (decoded == null ? bitSet() : decoded).containsAll(domainRequirement.bitSet());
+        }
+
+        private boolean isRadixBitmask() {
+            final var start = PermissionLayout.isLayoutBitmask(bitmask) ? PermissionLayout.versionEnd(bitmask) : 0;
+            final var bitmaskEncoding = BitmaskEncoding.of(bitmask, start);
+            return bitmaskEncoding == BitmaskEncoding.BASE32 || bitmaskEncoding == BitmaskEncoding.BASE64URL;
+        }
+
+        PermissionBitSet bitSet() {
+            var decoded = bitSet;
+            if (decoded == null) {
+                decoded = enumClassPermissions.decode(bitmask, revision);
+                bitSet = decoded;
+            }
+            return decoded;
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.Arrays;
+
+final class PermissionBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    private final long[] words;
+
+    PermissionBitSet(int nbits) {
+        this(new long[wordIndex(Math.max(nbits, 1) - 1) + 1]);
+    }
+
+    private PermissionBitSet(long[] words) {
+        this.words = words;
+    }
+
+    static PermissionBitSet wrap(long[] words) {
+        return new PermissionBitSet(words);
+    }
+
+    static int wordIndex(int bitIndex) {
+        return bitIndex >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    void set(int bitIndex) {
+        words[wordIndex(bitIndex)] |= 1L << bitIndex;
+    }
+
+    void set(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        final var startWordIndex = wordIndex(fromIndex);
+        final var endWordIndex = wordIndex(toIndex - 1);
+        final var firstWordMask = -1L << fromIndex;
+        final var lastWordMask = -1L >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            words[startWordIndex] |= firstWordMask & lastWordMask;
+            return;
+        }
+        words[startWordIndex] |= firstWordMask;
+        Arrays.fill(words, startWordIndex + 1, endWordIndex, -1L);
+        words[endWordIndex] |= lastWordMask;
+    }
+
+    void clear(int bitIndex) {
+        words[wordIndex(bitIndex)] &= ~(1L << bitIndex);
+    }
+
+    void set(int wordIndex, long wordMask) {
+        words[wordIndex] |= wordMask;
+    }
+
+    boolean get(int wordIndex, long wordMask) {
+        return wordIndex < words.length && (words[wordIndex] & wordMask) != 0;
+    }
+
+    boolean get(int bitIndex) {
+        final var wordIndex = wordIndex(bitIndex);
+        return wordIndex < words.length && (words[wordIndex] & (1L << bitIndex)) != 0;
+    }
+
+    PermissionBitSet truncate(int nbits) {
+        if (nextSetBit(nbits) < 0) {
+            return this;
+        }
+        final var wordCount = wordIndex(nbits - 1) + 1;
+        final var truncated = Arrays.copyOf(words, wordCount);
+        truncated[wordCount - 1] &= -1L >>> (BITS_PER_WORD - (nbits - (wordCount - 1) * BITS_PER_WORD));
+        return new PermissionBitSet(truncated);
+    }
+
+    boolean containsAll(PermissionBitSet other) {
+        final var common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) {
+            if ((words[i] & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        for (int i = common; i < other.words.length; i++) {
+            if (other.words[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    PermissionBitSet and(PermissionBitSet other) {
+        final var result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new PermissionBitSet(result);
+    }
+
+    PermissionBitSet or(PermissionBitSet other) {
+        final var longer = words.length >= other.words.length ? this : other;
+        final var shorter = longer == this ? other : this;
+        final var result = longer.words.clone();
+        for (int i = 0; i < shorter.words.length; i++) {
+            result[i] |= shorter.words[i];
+        }
+        return new PermissionBitSet(result);
+    }
+
+    int nextSetBit(int fromIndex) {
+        var wordIndex = wordIndex(fromIndex);
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+        var word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    int nextClearBit(int fromIndex) {
+        var wordIndex = wordIndex(fromIndex);
+        if (wordIndex >= words.length) {
+            return fromIndex;
+        }
+        var word = ~words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return wordIndex * BITS_PER_WORD;
+            }
+            word = ~words[wordIndex];
+        }
+    }
+
+    int length() {
+        var lastWord = words.length - 1;
+        while (lastWord >= 0 && words[lastWord] == 0) {
+            lastWord--;
+        }
+        return lastWord < 0 ? 0 : (lastWord + 1) * BITS_PER_WORD - Long.numberOfLeadingZeros(words[lastWord]);
+    }
+
+    int cardinality() {
+        var sum = 0;
+        for (final var word : words) {
+            sum += Long.bitCount(word);
+        }
+        return sum;
+    }
+
+    boolean isEmpty() {
+        for (final var word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionBitSet other)) {
+            return false;
+        }
+        return containsAll(other) && other.containsAll(this);
+    }
+
+    @Override
+    public int hashCode() {
+        var length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+
+}
@@ -0,0 +1,126 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public final class PermissionLayout {
+
+    public static final char PREFIX = 'W';
+
+    private final Class<? extends Enum<?>> enumClass;
+    private final int[][] physicalIndexes;
+    private final int[][] ordinals;
+    private final String[] prefixes;
+
+    private PermissionLayout(Class<? extends Enum<?>> enumClass, int[][] physicalIndexes, int[][] ordinals) {
+        this.enumClass = enumClass;
+        this.physicalIndexes = physicalIndexes;
+        this.ordinals = ordinals;
+        this.prefixes = new String[physicalIndexes.length];
+        for (int version = 1; version <= prefixes.length; version++) {
+            final var builder = new StringBuilder().append(PREFIX);
+            SparseBitmaskCodec.appendVarint(builder, version);
+            prefixes[version - 1] = builder.toString();
+        }
+    }
+
+    public static <T extends Enum<T>> PermissionLayout of(Class<T> enumClass, List<List<T>> versions) {
+        Objects.requireNonNull(enumClass);
+        if (versions.isEmpty()) {
+            throw new IllegalArgumentException("Empty permission layout versions list is not allowed!");
+        }
+        final var size = enumClass.getEnumConstants().length;
+        final var physicalIndexes = new int[versions.size()][];
+        final var ordinals = new int[versions.size()][];
+        for (int version = 0; version < versions.size(); version++) {
+            physicalIndexes[version] = createPhysicalIndexes(size, versions.get(version));
+            ordinals[version] = createOrdinals(physicalIndexes[version]);
+        }
+        return new PermissionLayout(enumClass, physicalIndexes, ordinals);
+    }
+
+    private static int[] createPhysicalIndexes(int size, List<? extends Enum<?>> physicalOrder) {
+        final var physicalIndexes = new int[size];
+        Arrays.fill(physicalIndexes, -1);
+        var physicalIndex = 0;
+        for (final var permission : physicalOrder) {
+            if (physicalIndexes[permission.ordinal()] >= 0) {
+                throw new IllegalArgumentException("Duplicate permission in layout: " + permission);
+            }
+            physicalIndexes[permission.ordinal()] = physicalIndex++;
+        }
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (physicalIndexes[ordinal] < 0) {
+                physicalIndexes[ordinal] = physicalIndex++;
+            }
+        }
+        return physicalIndexes;
+    }
+
+    private static int[] createOrdinals(int[] physicalIndexes) {
+        final var ordinals = new int[physicalIndexes.length];
+        for (int ordinal = 0; ordinal < physicalIndexes.length; ordinal++) {
+            ordinals[physicalIndexes[ordinal]] = ordinal;
+        }
+        return ordinals;
+    }
+
+    public Class<? extends Enum<?>> getEnumClass() {
+        return enumClass;
+    }
+
+    public int getLatestVersion() {
+        return physicalIndexes.length;
+    }
+
+    static boolean isLayoutBitmask(CharSequence bitmask) {
+        return bitmask.length() > 0 && bitmask.charAt(0) == PREFIX;
+    }
+
+    static int versionEnd(CharSequence bitmask) {
+        return SparseBitmaskCodec.varintEnd(bitmask, 1, bitmask.length());
+    }
+
+    static int readVersion(CharSequence bitmask, int versionEnd) {
+        return SparseBitmaskCodec.readVarint(bitmask, 1, versionEnd);
+    }
+
+    String getPrefix(int version) {
+        return prefixes[checkVersion(version) - 1];
+    }
+
+    int physicalIndex(int version, int ordinal) {
+        return physicalIndexes[checkVersion(version) - 1][ordinal];
+    }
+
+    PermissionBitSet toPhysical(int version, PermissionBitSet bitSet) {
+        final var versionPhysicalIndexes = physicalIndexes[checkVersion(version) - 1];
+        final var physicalBitSet = new PermissionBitSet(versionPhysicalIndexes.length);
+        for (int ordinal = bitSet.nextSetBit(0);
+             ordinal >= 0 && ordinal < versionPhysicalIndexes.length;
+             ordinal = bitSet.nextSetBit(ordinal + 1)) {
+            physicalBitSet.set(versionPhysicalIndexes[ordinal]);
+        }
+        return physicalBitSet;
+    }
+
+    PermissionBitSet toLogical(int version, PermissionBitSet physicalBitSet) {
+        final var versionOrdinals = ordinals[checkVersion(version) - 1];
+        final var bitSet = new PermissionBitSet(versionOrdinals.length);
+        for (int physicalIndex = physicalBitSet.nextSetBit(0);
+             physicalIndex >= 0 && physicalIndex < versionOrdinals.length;
+             physicalIndex = physicalBitSet.nextSetBit(physicalIndex + 1)) {
+            bitSet.set(versionOrdinals[physicalIndex]);
+        }
+        return bitSet;
+    }
+
+    int checkVersion(int version) {
+        if (version < 1 || version > physicalIndexes.length) {
+            throw new IllegalArgumentException("Unknown " + enumClass.getSimpleName() + " layout version: " + version);
+        }
+        return version;
+    }
+
+}
@@ -0,0 +1,104 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissionService.EnumClassPermissions;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class PermissionRequirement {
+
+    static final PermissionRequirement UNSATISFIABLE = new PermissionRequirement(List.of());
+
+    private final List<DomainRequirement> domainRequirements;
+
+    PermissionRequirement(List<DomainRequirement> domainRequirements) {
+        this.domainRequirements = List.copyOf(domainRequirements);
+    }
+
+    public boolean isSatisfiable() {
+        return !domainRequirements.isEmpty();
+    }
+
+    List<DomainRequirement> domainRequirements() {
+        return domainRequirements;
+    }
+
+    static DomainRequirement createDomainRequirement(EnumClassPermissions enumClassPermissions,
+                                                     PermissionBitSet bitSet) {
+        final var layout = enumClassPermissions.layout();
+        final var layoutRequirements = new EncodedRequirement[layout == null ? 0 : layout.getLatestVersion()];
+        for (int version = 1; version <= layoutRequirements.length; version++) {
+            layoutRequirements[version - 1] =
+                    createEncodedRequirement(enumClassPermissions, layout.toPhysical(version, bitSet));
+        }
+        return new DomainRequirement(
+                enumClassPermissions,
+                bitSet,
+                createEncodedRequirement(enumClassPermissions, bitSet),
+                layoutRequirements);
+    }
+
+    private static EncodedRequirement createEncodedRequirement(EnumClassPermissions enumClassPermissions,
+                                                               PermissionBitSet bitSet) {
+        final var bitIndexes = new int[bitSet.cardinality()];
+        final var digitIndexes = new int[bitIndexes.length];
+        final var digitMasks = new int[bitIndexes.length];
+        var bitCount = 0;
+        var digitCount = 0;
+        for (int bitIndex = bitSet.nextSetBit(0); bitIndex >= 0; bitIndex = bitSet.nextSetBit(bitIndex + 1)) {
+            bitIndexes[bitCount++] = bitIndex;
+            final var digitIndex = enumClassPermissions.digitIndexes()[bitIndex];
+            if (digitCount == 0 || digitIndexes[digitCount - 1] != digitIndex) {
+                digitIndexes[digitCount++] = digitIndex;
+            }
+            digitMasks[digitCount - 1] |= enumClassPermissions.digitMasks()[bitIndex];
+        }
+        return new EncodedRequirement(
+                bitIndexes,
+                Arrays.copyOf(digitIndexes, digitCount),
+                Arrays.copyOf(digitMasks, digitCount));
+    }
+
+    record DomainRequirement(EnumClassPermissions enumClassPermissions,
+                             PermissionBitSet bitSet,
+                             EncodedRequirement encodedRequirement,
+                             EncodedRequirement[] layoutRequirements) {
+
+        boolean isSatisfiedBy(BitPermission bitPermission) {
+            return isSatisfiedBy(bitPermission.bitmask(), bitPermission.revision());
+        }
+
+        boolean isSatisfiedBy(CharSequence bitmask, Integer revision) {
+            final var universe = EnumClassPermissions.universe(revision);
+            if (!PermissionLayout.isLayoutBitmask(bitmask)) {
+                return encodedRequirement.isSatisfiedBy(bitmask, 0, universe);
+            }
+            final var start = PermissionLayout.versionEnd(bitmask);
+            final var version = PermissionLayout.readVersion(bitmask, start);
+            final var layout = enumClassPermissions.requireLayout();
+            return layoutRequirements[layout.checkVersion(version) - 1].isSatisfiedBy(bitmask, start, universe);
+        }
+    }
+
+    record EncodedRequirement(int[] bitIndexes, int[] digitIndexes, int[] digitMasks) {
+
+        boolean isSatisfiedBy(CharSequence bitmask, int start, int universe) {
+            final var bitmaskEncoding = BitmaskEncoding.of(bitmask, start);
+            if (bitmaskEncoding != BitmaskEncoding.BASE32) {
+                return bitmaskEncoding.containsAll(bitmask, start, universe, bitIndexes);
+            }
+            final var lastPosition = bitmask.length() - 1;
+            for (int i = 0; i < digitIndexes.length; i++) {
+                final var position = lastPosition - digitIndexes[i];
+                if (position < start) {
+                    return false;
+                }
+                if ((Base32BitmaskCodec.digit(bitmask.charAt(position)) & digitMasks[i]) != digitMasks[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
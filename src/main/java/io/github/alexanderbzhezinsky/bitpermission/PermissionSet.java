@@ -0,0 +1,102 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class PermissionSet extends AbstractSet<Enum<?>> {
+
+    private final BitPermissionService bitPermissionService;
+    private final ParsedToken parsedToken;
+    private int size = -1;
+
+    PermissionSet(BitPermissionService bitPermissionService, ParsedToken parsedToken) {
+        this.bitPermissionService = bitPermissionService;
+        this.parsedToken = parsedToken;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Enum<?> permission && bitPermissionService.hasPermission(permission, parsedToken);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof PermissionSet other) || other.bitPermissionService != bitPermissionService) {
+            return super.containsAll(c);
+        }
+        for (final var otherDomainToken : other.parsedToken.domainTokens()) {
+            final var otherBitSet = otherDomainToken.bitSet();
+            if (otherBitSet.isEmpty()) {
+                continue;
+            }
+            final var domainToken = parsedToken.getDomainToken(otherDomainToken.enumClassPermissions());
+            if (domainToken == null || !domainToken.bitSet().containsAll(otherBitSet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        var result = size;
+        if (result < 0) {
+            result = 0;
+            for (final var domainToken : parsedToken.domainTokens()) {
+                result += domainToken.bitSet().cardinality();
+            }
+            size = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (final var domainToken : parsedToken.domainTokens()) {
+            if (!domainToken.bitSet().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Enum<?>> iterator() {
+        return new Iterator<>() {
+
+            private final Iterator<ParsedToken.DomainToken> domainTokens = parsedToken.domainTokens().iterator();
+            private ParsedToken.DomainToken domainToken;
+            private int nextOrdinal = -1;
+
+            {
+                advance(0);
+            }
+
+            private void advance(int fromOrdinal) {
+                nextOrdinal = domainToken == null ? -1 : domainToken.bitSet().nextSetBit(fromOrdinal);
+                while (nextOrdinal < 0 && domainTokens.hasNext()) {
+                    domainToken = domainTokens.next();
+                    nextOrdinal = domainToken.bitSet().nextSetBit(0);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextOrdinal >= 0;
+            }
+
+            @Override
+            public Enum<?> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final var permission = domainToken.enumClassPermissions().permissionList().get(nextOrdinal);
+                advance(nextOrdinal + 1);
+                return permission;
+            }
+        };
+    }
+
+}
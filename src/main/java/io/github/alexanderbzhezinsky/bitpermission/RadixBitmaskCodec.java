@@ -0,0 +1,123 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.Arrays;
+
+final class RadixBitmaskCodec implements BitmaskCodec {
+
+    static final RadixBitmaskCodec BASE32 = new RadixBitmaskCodec("0123456789abcdefghijklmnopqrstuv", true);
+    static final RadixBitmaskCodec BASE64URL =
+            new RadixBitmaskCodec("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", false);
+
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    private final int bitsPerDigit;
+    private final int digitMask;
+    private final char[] digits;
+    private final byte[] digitValues;
+
+    private RadixBitmaskCodec(String digits, boolean ignoreCase) {
+        this.bitsPerDigit = Integer.numberOfTrailingZeros(digits.length());
+        this.digitMask = digits.length() - 1;
+        this.digits = digits.toCharArray();
+        this.digitValues = new byte[128];
+        Arrays.fill(digitValues, (byte) -1);
+        for (int value = 0; value < this.digits.length; value++) {
+            digitValues[this.digits[value]] = (byte) value;
+            if (ignoreCase) {
+                digitValues[Character.toUpperCase(this.digits[value])] = (byte) value;
+            }
+        }
+    }
+
+    int radix() {
+        return digits.length;
+    }
+
+    int bitsPerDigit() {
+        return bitsPerDigit;
+    }
+
+    int encodedLength(int bitLength) {
+        return Math.max(1, (bitLength + bitsPerDigit - 1) / bitsPerDigit);
+    }
+
+    @Override
+    public int encodedLength(PermissionBitSet bitSet, int universe) {
+        return encodedLength(bitSet.length());
+    }
+
+    @Override
+    public String encode(String prefix, PermissionBitSet bitSet, int universe) {
+        return encode(prefix, bitSet.words());
+    }
+
+    @Override
+    public PermissionBitSet decode(CharSequence bitmask, int start, int end, int universe, int nbits) {
+        return PermissionBitSet.wrap(decodeWords(bitmask, start, end)).truncate(nbits);
+    }
+
+    String encode(String prefix, long[] words) {
+        var lastWord = words.length - 1;
+        while (lastWord >= 0 && words[lastWord] == 0) {
+            lastWord--;
+        }
+        final var bitLength = lastWord < 0
+                ? 0
+                : lastWord * BITS_PER_WORD + (BITS_PER_WORD - Long.numberOfLeadingZeros(words[lastWord]));
+        final var prefixLength = prefix.length();
+        final var result = new char[prefixLength + encodedLength(bitLength)];
+        prefix.getChars(0, prefixLength, result, 0);
+        for (int digitIndex = 0; digitIndex < result.length - prefixLength; digitIndex++) {
+            final var bitIndex = digitIndex * bitsPerDigit;
+            final var wordIndex = bitIndex / BITS_PER_WORD;
+            final var bitOffset = bitIndex % BITS_PER_WORD;
+            var value = wordIndex < words.length ? words[wordIndex] >>> bitOffset : 0;
+            if (bitOffset > BITS_PER_WORD - bitsPerDigit && wordIndex + 1 < words.length) {
+                value |= words[wordIndex + 1] << (BITS_PER_WORD - bitOffset);
+            }
+            result[result.length - 1 - digitIndex] = digits[(int) (value & digitMask)];
+        }
+        return new String(result);
+    }
+
+    long[] decodeWords(CharSequence bitmask, int start, int end) {
+        final var length = end - start;
+        if (length <= 0) {
+            throw new NumberFormatException("Zero length bitmask");
+        }
+        final var words = new long[(length * bitsPerDigit + BITS_PER_WORD - 1) / BITS_PER_WORD];
+        for (int digitIndex = 0; digitIndex < length; digitIndex++) {
+            final long value = digit(bitmask.charAt(end - 1 - digitIndex));
+            final var bitIndex = digitIndex * bitsPerDigit;
+            final var wordIndex = bitIndex / BITS_PER_WORD;
+            final var bitOffset = bitIndex % BITS_PER_WORD;
+            words[wordIndex] |= value << bitOffset;
+            if (bitOffset > BITS_PER_WORD - bitsPerDigit) {
+                words[wordIndex + 1] |= value >>> (BITS_PER_WORD - bitOffset);
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public boolean isSet(CharSequence bitmask, int start, int end, int universe, int bitIndex) {
+        final var position = end - 1 - bitIndex / bitsPerDigit;
+        if (position < start) {
+            return false;
+        }
+        return (digit(bitmask.charAt(position)) & (1 << (bitIndex % bitsPerDigit))) != 0;
+    }
+
+    char symbol(int value) {
+        return digits[value];
+    }
+
+    int digit(char symbol) {
+        final var value = symbol < digitValues.length ? digitValues[symbol] : -1;
+        if (value < 0) {
+            throw new NumberFormatException("Illegal base" + digits.length + " bitmask digit: " + symbol);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,7 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.List;
+import java.util.Map;
+
+public record ScopedBitPermissions(List<BitPermission> dictionary, Map<String, List<Integer>> scopes) {
+}
@@ -0,0 +1,25 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class ScopedToken {
+
+    private static final ParsedToken EMPTY = new ParsedToken(List.of());
+
+    private final Map<String, ParsedToken> parsedTokens;
+
+    ScopedToken(Map<String, ParsedToken> parsedTokens) {
+        this.parsedTokens = Map.copyOf(parsedTokens);
+    }
+
+    public Set<String> getScopes() {
+        return parsedTokens.keySet();
+    }
+
+    public ParsedToken getParsedToken(String scope) {
+        return parsedTokens.getOrDefault(scope, EMPTY);
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+final class SparseBitmaskCodec implements BitmaskCodec {
+
+    static final SparseBitmaskCodec INSTANCE = new SparseBitmaskCodec();
+
+    private static final RadixBitmaskCodec ALPHABET = RadixBitmaskCodec.BASE64URL;
+    private static final int PAYLOAD_BITS = 5;
+    private static final int PAYLOAD_MASK = (1 << PAYLOAD_BITS) - 1;
+    private static final int CONTINUATION_FLAG = 1 << PAYLOAD_BITS;
+    private static final int MAX_VARINT_LENGTH = (Integer.SIZE + PAYLOAD_BITS - 1) / PAYLOAD_BITS;
+
+    private SparseBitmaskCodec() {
+    }
+
+    static int varintLength(int value) {
+        var length = 1;
+        while ((value >>>= PAYLOAD_BITS) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    static void appendVarint(StringBuilder builder, int value) {
+        while ((value & ~PAYLOAD_MASK) != 0) {
+            builder.append(ALPHABET.symbol(CONTINUATION_FLAG | (value & PAYLOAD_MASK)));
+            value >>>= PAYLOAD_BITS;
+        }
+        builder.append(ALPHABET.symbol(value));
+    }
+
+    @Override
+    public int encodedLength(PermissionBitSet bitSet, int universe) {
+        return encodedLength(bitSet);
+    }
+
+    int encodedLength(PermissionBitSet bitSet) {
+        var length = 0;
+        var previous = -1;
+        for (int bitIndex = bitSet.nextSetBit(0); bitIndex >= 0; bitIndex = bitSet.nextSetBit(bitIndex + 1)) {
+            length += varintLength(bitIndex - previous - 1);
+            previous = bitIndex;
+        }
+        return length;
+    }
+
+    @Override
+    public String encode(String prefix, PermissionBitSet bitSet, int universe) {
+        final var builder = new StringBuilder(prefix.length() + encodedLength(bitSet)).append(prefix);
+        var previous = -1;
+        for (int bitIndex = bitSet.nextSetBit(0); bitIndex >= 0; bitIndex = bitSet.nextSetBit(bitIndex + 1)) {
+            appendVarint(builder, bitIndex - previous - 1);
+            previous = bitIndex;
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public PermissionBitSet decode(CharSequence bitmask, int start, int end, int universe, int nbits) {
+        final var bitSet = new PermissionBitSet(nbits);
+        var bitIndex = -1L;
+        var position = start;
+        while (position < end) {
+            final var varintEnd = varintEnd(bitmask, position, end);
+            bitIndex += readVarint(bitmask, position, varintEnd) + 1L;
+            if (bitIndex >= nbits) {
+                break;
+            }
+            bitSet.set((int) bitIndex);
+            position = varintEnd;
+        }
+        return bitSet;
+    }
+
+    @Override
+    public boolean isSet(CharSequence bitmask, int start, int end, int universe, int bitIndex) {
+        return isSet(bitmask, start, end, bitIndex);
+    }
+
+    boolean isSet(CharSequence bitmask, int start, int end, int bitIndex) {
+        var currentBitIndex = -1L;
+        var position = start;
+        while (position < end) {
+            final var varintEnd = varintEnd(bitmask, position, end);
+            currentBitIndex += readVarint(bitmask, position, varintEnd) + 1L;
+            if (currentBitIndex >= bitIndex) {
+                return currentBitIndex == bitIndex;
+            }
+            position = varintEnd;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(CharSequence bitmask, int start, int end, int universe, int[] bitIndexes) {
+        var currentBitIndex = -1L;
+        var position = start;
+        for (final var bitIndex : bitIndexes) {
+            while (currentBitIndex < bitIndex) {
+                if (position >= end) {
+                    return false;
+                }
+                final var varintEnd = varintEnd(bitmask, position, end);
+                currentBitIndex += readVarint(bitmask, position, varintEnd) + 1L;
+                position = varintEnd;
+            }
+            if (currentBitIndex != bitIndex) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int varintEnd(CharSequence bitmask, int start, int end) {
+        var position = start;
+        while (position < end) {
+            if ((ALPHABET.digit(bitmask.charAt(position++)) & CONTINUATION_FLAG) == 0) {
+                return position;
+            }
+        }
+        throw new NumberFormatException("Truncated sparse bitmask: " + bitmask);
+    }
+
+    static int readVarint(CharSequence bitmask, int start, int end) {
+        if (end - start > MAX_VARINT_LENGTH) {
+            throw new NumberFormatException("Sparse bitmask value is too large: " + bitmask);
+        }
+        var value = 0L;
+        var shift = 0;
+        for (int position = start; position < end; position++) {
+            value |= (long) (ALPHABET.digit(bitmask.charAt(position)) & PAYLOAD_MASK) << shift;
+            shift += PAYLOAD_BITS;
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Sparse bitmask value is too large: " + bitmask);
+            }
+        }
+        return (int) value;
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.List;
+
+public enum TokenFormat {
+
+    JSON(8, 1, 2),
+    JSON_OBJECT(6, 1, 2),
+    COMPACT(2, 1, 0);
+
+    private final int entryOverhead;
+    private final int dividerSize;
+    private final int enclosingSize;
+
+    TokenFormat(int entryOverhead, int dividerSize, int enclosingSize) {
+        this.entryOverhead = entryOverhead;
+        this.dividerSize = dividerSize;
+        this.enclosingSize = enclosingSize;
+    }
+
+    public int encodedSize(List<BitPermission> bitPermissions) {
+        var encodedSize = enclosingSize(bitPermissions.size());
+        for (final var bitPermission : bitPermissions) {
+            encodedSize += encodedSize(bitPermission);
+        }
+        return encodedSize;
+    }
+
+    public int encodedSize(BitPermission bitPermission) {
+        return entrySize(bitPermission.domain(), bitPermission.revision(), bitPermission.bitmask().length());
+    }
+
+    int enclosingSize(int entryCount) {
+        return enclosingSize + Math.max(0, entryCount - 1) * dividerSize;
+    }
+
+    int entrySize(String domain, int revision, int bitmaskLength) {
+        return BitPermissionBinaryCodec.utf8Length(domain) + stringSize(revision) + bitmaskLength + entryOverhead;
+    }
+
+    static int stringSize(int value) {
+        var size = value < 0 ? 2 : 1;
+        var remaining = Math.abs((long) value);
+        while ((remaining /= 10) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+}
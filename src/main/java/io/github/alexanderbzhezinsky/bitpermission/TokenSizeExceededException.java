@@ -0,0 +1,30 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import java.util.Map;
+
+public class TokenSizeExceededException extends IllegalArgumentException {
+
+    private final int maxBytes;
+    private final int encodedSize;
+    private final Map<String, Integer> domainSizes;
+
+    public TokenSizeExceededException(int maxBytes, int encodedSize, Map<String, Integer> domainSizes) {
+        super("Encoded token size " + encodedSize + " exceeds " + maxBytes + " bytes, domain sizes: " + domainSizes);
+        this.maxBytes = maxBytes;
+        this.encodedSize = encodedSize;
+        this.domainSizes = Map.copyOf(domainSizes);
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getEncodedSize() {
+        return encodedSize;
+    }
+
+    public Map<String, Integer> getDomainSizes() {
+        return domainSizes;
+    }
+
+}
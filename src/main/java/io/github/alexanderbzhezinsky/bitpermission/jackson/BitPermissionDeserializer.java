@@ -1,41 +1,60 @@
 package io.github.alexanderbzhezinsky.bitpermission.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import io.github.alexanderbzhezinsky.bitpermission.BitPermission;
 
 import java.io.IOException;
-import java.util.Objects;
-
-import static io.github.alexanderbzhezinsky.bitpermission.jackson.BitPermissionJackson.DOMAIN_AND_REVISION_DIVIDER;
+import java.util.Map;
 
 public class BitPermissionDeserializer extends StdDeserializer<BitPermission> {
 
+    private final DomainAndRevisionTable domainAndRevisionTable;
+
     public BitPermissionDeserializer() {
-        this(null);
+        this((Class<BitPermission>) null);
     }
 
     public BitPermissionDeserializer(Class<BitPermission> t) {
         super(t);
+        this.domainAndRevisionTable = new DomainAndRevisionTable(Map.of());
+    }
+
+    public BitPermissionDeserializer(Map<String, Integer> domainRevisions) {
+        this(new DomainAndRevisionTable(domainRevisions));
+    }
+
+    BitPermissionDeserializer(DomainAndRevisionTable domainAndRevisionTable) {
+        super(BitPermission.class);
+        this.domainAndRevisionTable = domainAndRevisionTable;
     }
 
     @Override
     public BitPermission deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-        final JsonNode node = jp.getCodec().readTree(jp);
-        final var entry = node.fields().next();
-        final var domainAndRevision = entry.getKey();
-        final var bitmask = entry.getValue().asText();
-        Objects.requireNonNull(domainAndRevision);
-        Objects.requireNonNull(bitmask);
-        final var split = domainAndRevision.split(DOMAIN_AND_REVISION_DIVIDER);
-        if (split.length != 2 || split[0] == null || split[1] == null || split[0].isBlank() || split[1].isBlank()) {
-            throw new IllegalArgumentException("Failed to split domainAndRevision: " + domainAndRevision);
+        var token = jp.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jp.nextToken();
         }
-        final var domain = split[0];
-        final var revision = Integer.valueOf(split[1]);
-        return new BitPermission(domain, revision, bitmask);
+        if (token != JsonToken.FIELD_NAME) {
+            throw new IllegalArgumentException("No domainAndRevision field in BitPermission object");
+        }
+        final var domainAndRevision = jp.currentName();
+        if (jp.nextToken() != JsonToken.VALUE_STRING) {
+            return (BitPermission) ctxt.handleUnexpectedToken(BitPermission.class, jp);
+        }
+        final var bitmask = jp.getText();
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            jp.nextToken();
+            jp.skipChildren();
+        }
+        return createBitPermission(domainAndRevision, bitmask);
+    }
+
+    BitPermission createBitPermission(String domainAndRevision, String bitmask) {
+        final var key = domainAndRevisionTable.resolve(domainAndRevision);
+        return new BitPermission(key.domain(), key.revision(), bitmask);
     }
 
 }
@@ -3,6 +3,9 @@ package io.github.alexanderbzhezinsky.bitpermission.jackson;
 import com.fasterxml.jackson.core.Version;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.github.alexanderbzhezinsky.bitpermission.BitPermission;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissionService;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.ParsedToken;
 
 public final class BitPermissionJackson {
 
@@ -12,6 +15,22 @@ public final class BitPermissionJackson {
     }
 
     public static SimpleModule getModule() {
+        return createModule(new BitPermissionSerializer(), new BitPermissionDeserializer());
+    }
+
+    public static SimpleModule getModule(BitPermissionService bitPermissionService) {
+        final var domainRevisions = bitPermissionService.getDomainRevisions();
+        final var domainAndRevisionTable = new DomainAndRevisionTable(domainRevisions);
+        return createModule(
+                new BitPermissionSerializer(domainRevisions),
+                new BitPermissionDeserializer(domainAndRevisionTable))
+                .addDeserializer(
+                        ParsedToken.class,
+                        new ParsedTokenDeserializer(bitPermissionService, domainAndRevisionTable));
+    }
+
+    private static SimpleModule createModule(BitPermissionSerializer bitPermissionSerializer,
+                                             BitPermissionDeserializer bitPermissionDeserializer) {
         return new SimpleModule(
                 "BitPermissionJacksonModule",
                 new Version(
@@ -21,8 +40,10 @@ public final class BitPermissionJackson {
                         null,
                         "io.github.alexanderbzhezinsky",
                         "bitpermission"))
-                .addSerializer(BitPermission.class, new BitPermissionSerializer())
-                .addDeserializer(BitPermission.class, new BitPermissionDeserializer());
+                .addSerializer(BitPermission.class, bitPermissionSerializer)
+                .addDeserializer(BitPermission.class, bitPermissionDeserializer)
+                .addSerializer(BitPermissions.class, new BitPermissionsSerializer(bitPermissionSerializer))
+                .addDeserializer(BitPermissions.class, new BitPermissionsDeserializer(bitPermissionDeserializer));
     }
 
 }
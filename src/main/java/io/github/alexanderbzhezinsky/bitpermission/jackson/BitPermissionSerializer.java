@@ -1,23 +1,43 @@
 package io.github.alexanderbzhezinsky.bitpermission.jackson;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import io.github.alexanderbzhezinsky.bitpermission.BitPermission;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import static io.github.alexanderbzhezinsky.bitpermission.jackson.BitPermissionJackson.DOMAIN_AND_REVISION_DIVIDER;
 
 public class BitPermissionSerializer extends StdSerializer<BitPermission> {
 
+    private final Map<String, FieldName> fieldNames;
+
     public BitPermissionSerializer() {
-        this(null);
+        this((Class<BitPermission>) null);
     }
 
     public BitPermissionSerializer(Class<BitPermission> t) {
         super(t);
+        this.fieldNames = Map.of();
+    }
+
+    public BitPermissionSerializer(Map<String, Integer> domainRevisions) {
+        super(BitPermission.class);
+        this.fieldNames = createFieldNames(domainRevisions);
+    }
+
+    private static Map<String, FieldName> createFieldNames(Map<String, Integer> domainRevisions) {
+        final var fieldNames = new HashMap<String, FieldName>(domainRevisions.size());
+        domainRevisions.forEach((domain, revision) -> fieldNames.put(
+                domain,
+                new FieldName(revision, new SerializedString(domain + DOMAIN_AND_REVISION_DIVIDER + revision))));
+        return Map.copyOf(fieldNames);
     }
 
     @Override
@@ -27,14 +47,28 @@ public class BitPermissionSerializer extends StdSerializer<BitPermission> {
 
         jsonGenerator.writeStartObject();
 
+        writeField(bitPermission, jsonGenerator);
+
+        jsonGenerator.writeEndObject();
+    }
+
+    void writeField(BitPermission bitPermission, JsonGenerator jsonGenerator) throws IOException {
         Objects.requireNonNull(bitPermission);
         Objects.requireNonNull(bitPermission.domain());
         Objects.requireNonNull(bitPermission.revision());
         Objects.requireNonNull(bitPermission.bitmask());
-        final var fieldName = bitPermission.domain() + DOMAIN_AND_REVISION_DIVIDER + bitPermission.revision();
-        jsonGenerator.writeStringField(fieldName, bitPermission.bitmask());
+        final var fieldName = fieldNames.get(bitPermission.domain());
+        if (fieldName != null && fieldName.revision == bitPermission.revision()) {
+            jsonGenerator.writeFieldName(fieldName.serializedString);
+            jsonGenerator.writeString(bitPermission.bitmask());
+        } else {
+            jsonGenerator.writeStringField(
+                    bitPermission.domain() + DOMAIN_AND_REVISION_DIVIDER + bitPermission.revision(),
+                    bitPermission.bitmask());
+        }
+    }
 
-        jsonGenerator.writeEndObject();
+    private record FieldName(int revision, SerializableString serializedString) {
     }
 
 }
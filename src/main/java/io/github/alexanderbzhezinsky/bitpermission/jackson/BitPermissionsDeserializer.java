@@ -0,0 +1,46 @@
+package io.github.alexanderbzhezinsky.bitpermission.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermission;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Objects;
+
+public class BitPermissionsDeserializer extends StdDeserializer<BitPermissions> {
+
+    private final BitPermissionDeserializer bitPermissionDeserializer;
+
+    public BitPermissionsDeserializer() {
+        this(new BitPermissionDeserializer());
+    }
+
+    public BitPermissionsDeserializer(BitPermissionDeserializer bitPermissionDeserializer) {
+        super(BitPermissions.class);
+        this.bitPermissionDeserializer = Objects.requireNonNull(bitPermissionDeserializer);
+    }
+
+    @Override
+    public BitPermissions deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        var token = jp.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jp.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (BitPermissions) ctxt.handleUnexpectedToken(BitPermissions.class, jp);
+        }
+        final var bitPermissions = new ArrayList<BitPermission>();
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            final var domainAndRevision = jp.currentName();
+            if (jp.nextToken() != JsonToken.VALUE_STRING) {
+                return (BitPermissions) ctxt.handleUnexpectedToken(BitPermissions.class, jp);
+            }
+            bitPermissions.add(bitPermissionDeserializer.createBitPermission(domainAndRevision, jp.getText()));
+        }
+        return new BitPermissions(bitPermissions);
+    }
+
+}
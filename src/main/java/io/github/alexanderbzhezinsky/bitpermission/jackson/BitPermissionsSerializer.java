@@ -0,0 +1,40 @@
+package io.github.alexanderbzhezinsky.bitpermission.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissions;
+
+import java.io.IOException;
+import java.util.Objects;
+
+public class BitPermissionsSerializer extends StdSerializer<BitPermissions> {
+
+    private final BitPermissionSerializer bitPermissionSerializer;
+
+    public BitPermissionsSerializer() {
+        this(new BitPermissionSerializer());
+    }
+
+    public BitPermissionsSerializer(BitPermissionSerializer bitPermissionSerializer) {
+        super(BitPermissions.class);
+        this.bitPermissionSerializer = Objects.requireNonNull(bitPermissionSerializer);
+    }
+
+    @Override
+    public void serialize(BitPermissions bitPermissions,
+                          JsonGenerator jsonGenerator,
+                          SerializerProvider serializer) throws IOException {
+
+        Objects.requireNonNull(bitPermissions.bitPermissions());
+
+        jsonGenerator.writeStartObject(bitPermissions, bitPermissions.bitPermissions().size());
+
+        for (final var bitPermission : bitPermissions.bitPermissions()) {
+            bitPermissionSerializer.writeField(bitPermission, jsonGenerator);
+        }
+
+        jsonGenerator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.github.alexanderbzhezinsky.bitpermission.jackson;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.alexanderbzhezinsky.bitpermission.jackson.BitPermissionJackson.DOMAIN_AND_REVISION_DIVIDER;
+
+final class DomainAndRevisionTable {
+
+    static final DomainAndRevision UNREGISTERED = new DomainAndRevision(null, null, false);
+
+    private static final char DIVIDER = DOMAIN_AND_REVISION_DIVIDER.charAt(0);
+    private static final int MAX_CACHED_KEYS = 1024;
+
+    private final Map<String, DomainAndRevision> catalogKeys;
+    private final String[] catalogDomains;
+    private final int[] catalogRevisions;
+    private final Map<String, DomainAndRevision> cachedKeys = new ConcurrentHashMap<>();
+
+    DomainAndRevisionTable(Map<String, Integer> domainRevisions) {
+        final var keys = new HashMap<String, DomainAndRevision>(domainRevisions.size());
+        var capacity = 2;
+        while (capacity < 2 * domainRevisions.size()) {
+            capacity <<= 1;
+        }
+        final var domains = new String[capacity];
+        final var revisions = new int[capacity];
+        domainRevisions.forEach((domain, revision) -> {
+            keys.put(domain + DOMAIN_AND_REVISION_DIVIDER + revision, new DomainAndRevision(domain, revision, true));
+            var slot = domain.hashCode() & (domains.length - 1);
+            while (domains[slot] != null) {
+                slot = (slot + 1) & (domains.length - 1);
+            }
+            domains[slot] = domain;
+            revisions[slot] = revision;
+        });
+        this.catalogKeys = Map.copyOf(keys);
+        this.catalogDomains = domains;
+        this.catalogRevisions = revisions;
+    }
+
+    DomainAndRevision resolve(String domainAndRevision) {
+        final var catalogKey = catalogKeys.get(domainAndRevision);
+        if (catalogKey != null) {
+            return catalogKey;
+        }
+        final var cachedKey = cachedKeys.get(domainAndRevision);
+        if (cachedKey != null) {
+            return cachedKey;
+        }
+        final var dividerIndex = splitIndex(domainAndRevision);
+        final var catalogSlot = findCatalogSlot(domainAndRevision, dividerIndex);
+        final var key = split(domainAndRevision, dividerIndex, catalogSlot);
+        if (catalogSlot >= 0 && key.revision() > 0 && key.revision() <= catalogRevisions[catalogSlot]) {
+            if (cachedKeys.size() >= MAX_CACHED_KEYS) {
+                cachedKeys.clear();
+            }
+            cachedKeys.putIfAbsent(domainAndRevision, key);
+        }
+        return key;
+    }
+
+    DomainAndRevision resolveRegistered(String domainAndRevision) {
+        final var catalogKey = catalogKeys.get(domainAndRevision);
+        if (catalogKey != null) {
+            return catalogKey;
+        }
+        final var dividerIndex = domainAndRevision.indexOf(DIVIDER);
+        if (dividerIndex <= 0 || findCatalogSlot(domainAndRevision, dividerIndex) < 0) {
+            return UNREGISTERED;
+        }
+        return resolve(domainAndRevision);
+    }
+
+    private int findCatalogSlot(String domainAndRevision, int domainLength) {
+        var hash = 0;
+        for (int i = 0; i < domainLength; i++) {
+            hash = 31 * hash + domainAndRevision.charAt(i);
+        }
+        for (int slot = hash & (catalogDomains.length - 1);
+             catalogDomains[slot] != null;
+             slot = (slot + 1) & (catalogDomains.length - 1)) {
+            final var domain = catalogDomains[slot];
+            if (domain.length() == domainLength && domainAndRevision.regionMatches(0, domain, 0, domainLength)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static int splitIndex(String domainAndRevision) {
+        final var dividerIndex = domainAndRevision.lastIndexOf(DIVIDER);
+        if (dividerIndex <= 0
+                || dividerIndex == domainAndRevision.length() - 1
+                || domainAndRevision.indexOf(DIVIDER) != dividerIndex) {
+            throw new IllegalArgumentException("Failed to split domainAndRevision: " + domainAndRevision);
+        }
+        return dividerIndex;
+    }
+
+    private DomainAndRevision split(String domainAndRevision, int dividerIndex, int catalogSlot) {
+        final var domain = catalogSlot >= 0
+                ? catalogDomains[catalogSlot]
+                : domainAndRevision.substring(0, dividerIndex);
+        if (domain.isBlank()) {
+            throw new IllegalArgumentException("Failed to split domainAndRevision: " + domainAndRevision);
+        }
+        final Integer revision = Integer.parseInt(domainAndRevision, dividerIndex + 1, domainAndRevision.length(), 10);
+        return new DomainAndRevision(domain, revision, catalogSlot >= 0);
+    }
+
+    record DomainAndRevision(String domain, Integer revision, boolean registered) {
+    }
+
+}
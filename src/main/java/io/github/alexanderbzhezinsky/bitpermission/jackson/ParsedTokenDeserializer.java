@@ -0,0 +1,77 @@
+package io.github.alexanderbzhezinsky.bitpermission.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissionService;
+import io.github.alexanderbzhezinsky.bitpermission.ParsedToken;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+public class ParsedTokenDeserializer extends StdDeserializer<ParsedToken> {
+
+    private final BitPermissionService bitPermissionService;
+    private final DomainAndRevisionTable domainAndRevisionTable;
+
+    public ParsedTokenDeserializer(BitPermissionService bitPermissionService) {
+        this(bitPermissionService, new DomainAndRevisionTable(bitPermissionService.getDomainRevisions()));
+    }
+
+    ParsedTokenDeserializer(BitPermissionService bitPermissionService, DomainAndRevisionTable domainAndRevisionTable) {
+        super(ParsedToken.class);
+        this.bitPermissionService = Objects.requireNonNull(bitPermissionService);
+        this.domainAndRevisionTable = Objects.requireNonNull(domainAndRevisionTable);
+    }
+
+    @Override
+    public ParsedToken deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        final var builder = bitPermissionService.newParsedTokenBuilder();
+        var token = jp.currentToken();
+        if (token == JsonToken.START_ARRAY) {
+            while ((token = jp.nextToken()) == JsonToken.START_OBJECT) {
+                if (jp.nextToken() != JsonToken.FIELD_NAME) {
+                    throw new IllegalArgumentException("No domainAndRevision field in BitPermission object");
+                }
+                readField(jp, ctxt, builder);
+                while (jp.nextToken() == JsonToken.FIELD_NAME) {
+                    jp.nextToken();
+                    jp.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                return (ParsedToken) ctxt.handleUnexpectedToken(ParsedToken.class, jp);
+            }
+        } else if (token == JsonToken.START_OBJECT || token == JsonToken.FIELD_NAME) {
+            if (token == JsonToken.START_OBJECT) {
+                token = jp.nextToken();
+            }
+            for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+                readField(jp, ctxt, builder);
+            }
+        } else {
+            return (ParsedToken) ctxt.handleUnexpectedToken(ParsedToken.class, jp);
+        }
+        return builder.build();
+    }
+
+    private void readField(JsonParser jp, DeserializationContext ctxt, ParsedToken.Builder builder) throws IOException {
+        final var key = domainAndRevisionTable.resolveRegistered(jp.currentName());
+        final var token = jp.nextToken();
+        if (!key.registered()) {
+            jp.skipChildren();
+            return;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            ctxt.handleUnexpectedToken(ParsedToken.class, jp);
+            return;
+        }
+        builder.add(
+                key.domain(),
+                key.revision(),
+                CharBuffer.wrap(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength()));
+    }
+
+}
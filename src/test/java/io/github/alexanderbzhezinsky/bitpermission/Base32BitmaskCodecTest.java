@@ -0,0 +1,108 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class Base32BitmaskCodecTest {
+
+    private static final BigInteger BASE_BIG_INT = new BigInteger("2");
+
+    @ParameterizedTest(name = "should encode bitmask the same way as BigInteger does: {0}")
+    @MethodSource("getBitmaskTestCases")
+    void shouldEncodeBitmaskAsBigInteger(String legend, BigInteger bitmask) {
+        // given
+        final var words = toWords(bitmask);
+
+        // when
+        final var actual = Base32BitmaskCodec.encode(words);
+
+        // then
+        assertThat(actual).isEqualTo(bitmask.toString(Base32BitmaskCodec.RADIX));
+    }
+
+    @ParameterizedTest(name = "should decode bitmask the same way as BigInteger does: {0}")
+    @MethodSource("getBitmaskTestCases")
+    void shouldDecodeBitmaskAsBigInteger(String legend, BigInteger bitmask) {
+        // given
+        final var encoded = bitmask.toString(Base32BitmaskCodec.RADIX);
+
+        // when
+        final var actual = Base32BitmaskCodec.decode(encoded);
+
+        // then
+        assertThat(PermissionBitSet.wrap(actual)).isEqualTo(PermissionBitSet.wrap(toWords(bitmask)));
+    }
+
+    private static Stream<Arguments> getBitmaskTestCases() {
+        final var random = new Random(2500);
+        return Stream.of(
+                Arguments.of("zero", BigInteger.ZERO),
+                Arguments.of("one", BigInteger.ONE),
+                Arguments.of("word boundary", BASE_BIG_INT.pow(63).add(BASE_BIG_INT.pow(64))),
+                Arguments.of("digit crossing word boundary", BASE_BIG_INT.pow(60).add(BASE_BIG_INT.pow(64))),
+                Arguments.of("highest BigTestPermissions ordinal", BASE_BIG_INT.pow(2499).add(BigInteger.ONE)),
+                Arguments.of("all bits of a domain", BASE_BIG_INT.pow(2500).subtract(BigInteger.ONE)),
+                Arguments.of("random", new BigInteger(2500, random)),
+                Arguments.of("random short", new BigInteger(77, random))
+        );
+    }
+
+    @Test
+    void shouldDecodeUpperCaseDigits() {
+
+        // when
+        final var actual = Base32BitmaskCodec.decode("V");
+
+        // then
+        assertThat(actual).containsExactly(31L);
+    }
+
+    @Test
+    void shouldDecodeRange() {
+
+        // when
+        final var actual = Base32BitmaskCodec.decode("x10x", 1, 3);
+
+        // then
+        assertThat(actual).containsExactly(32L);
+    }
+
+    @ParameterizedTest(name = "should not decode invalid bitmask: {0}")
+    @MethodSource("getInvalidBitmaskTestCases")
+    void shouldNotDecodeInvalidBitmask(String legend, String bitmask) {
+
+        // when
+        final var thrown = catchThrowable(() -> Base32BitmaskCodec.decode(bitmask));
+
+        // then
+        assertThat(thrown).isInstanceOf(NumberFormatException.class);
+    }
+
+    private static Stream<Arguments> getInvalidBitmaskTestCases() {
+        return Stream.of(
+                Arguments.of("empty", ""),
+                Arguments.of("out of alphabet letter", "w"),
+                Arguments.of("negative sign", "-1"),
+                Arguments.of("blank", " "),
+                Arguments.of("non ascii", "١")
+        );
+    }
+
+    private static long[] toWords(BigInteger bitmask) {
+        final var words = new long[Math.max(1, (bitmask.bitLength() + 63) / 64)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = bitmask.shiftRight(i * 64).longValue();
+        }
+        return words;
+    }
+
+}
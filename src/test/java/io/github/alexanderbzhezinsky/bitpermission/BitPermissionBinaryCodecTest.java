@@ -0,0 +1,109 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import io.github.alexanderbzhezinsky.bitpermission.enumeration.BigTestPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.enumeration.SmallTestPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.enumeration.TestPermissions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class BitPermissionBinaryCodecTest {
+
+    private static final BitPermissionBinaryCodec BINARY_CODEC = new BitPermissionBinaryCodec(
+            List.of("TestPermissions", "BigTestPermissions"));
+
+    @ParameterizedTest(name = "should write and read {0}")
+    @MethodSource("getRoundTripTestCases")
+    void shouldWriteAndReadBitPermissions(String legend, List<BitPermission> bitPermissions) {
+        // given
+        final var buffer = ByteBuffer.allocate(BINARY_CODEC.encodedLength(bitPermissions));
+
+        // when
+        BINARY_CODEC.writeTo(bitPermissions, buffer);
+        final var actual = BINARY_CODEC.readFrom(buffer.flip());
+
+        // then
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(actual).isEqualTo(bitPermissions);
+    }
+
+    private static Stream<Arguments> getRoundTripTestCases() {
+        final var permissions = List.of(
+                TestPermissions.CREATE_PERMISSION,
+                SmallTestPermissions.PERMISSION_127,
+                BigTestPermissions.PERMISSION_2325);
+        return Stream.of(
+                Arguments.of("no bit permissions", List.of()),
+                Arguments.of("base32 bit permissions",
+                        new BitPermissionService(Set.of(TestPermissions.class, SmallTestPermissions.class,
+                                BigTestPermissions.class)).getBitPermissions(permissions)),
+                Arguments.of("prefixed bit permissions",
+                        new BitPermissionService(Set.of(TestPermissions.class, SmallTestPermissions.class,
+                                BigTestPermissions.class), EnumSet.allOf(BitmaskEncoding.class))
+                                .getBitPermissions(permissions)),
+                Arguments.of("uppercase and leading zero bitmasks",
+                        List.of(new BitPermission("TestPermissions", 5, "00V"))),
+                Arguments.of("negative revision and raw bitmask",
+                        List.of(new BitPermission("Unknown", -1, "not a bitmask!"))),
+                Arguments.of("empty bitmask",
+                        List.of(new BitPermission("TestPermissions", 5, ""))));
+    }
+
+    @Test
+    void shouldWriteKnownDomainsAsIds() {
+        // given
+        final var bitPermissions = List.of(new BitPermission("BigTestPermissions", 2500, "1"));
+
+        // when
+        final var encodedLength = BINARY_CODEC.encodedLength(bitPermissions);
+
+        // then
+        assertThat(encodedLength).isEqualTo(7);
+    }
+
+    @Test
+    void shouldNotReadUnknownDomainId() {
+        // given
+        final var buffer = ByteBuffer.wrap(new byte[]{1, 3, 10, 0, 1, 0});
+
+        // when
+        final var thrown = catchThrowable(() -> BINARY_CODEC.readFrom(buffer));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotReadTruncatedBitmask() {
+        // given
+        final var buffer = ByteBuffer.wrap(new byte[]{1, 1, 10, 0, 100, 0});
+
+        // when
+        final var thrown = catchThrowable(() -> BINARY_CODEC.readFrom(buffer));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotAllowDuplicateDomains() {
+
+        // when
+        final var thrown = catchThrowable(
+                () -> new BitPermissionBinaryCodec(List.of("TestPermissions", "TestPermissions")));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -1,18 +1,26 @@
 package io.github.alexanderbzhezinsky.bitpermission;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.alexanderbzhezinsky.bitpermission.enumeration.BigTestPermissions;
 import io.github.alexanderbzhezinsky.bitpermission.enumeration.EmptyTestPermissions;
 import io.github.alexanderbzhezinsky.bitpermission.enumeration.SmallTestPermissions;
 import io.github.alexanderbzhezinsky.bitpermission.enumeration.TestPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.jackson.BitPermissionJackson;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -49,6 +57,19 @@ class BitPermissionServiceTest {
         ENUM_CLASSES_SET_WITH_NULL.add(null);
     }
 
+    private static final PermissionLayout BIG_TEST_PERMISSION_LAYOUT = PermissionLayout.of(
+            BigTestPermissions.class,
+            List.of(
+                    List.of(BigTestPermissions.PERMISSION_2499, BigTestPermissions.PERMISSION_0),
+                    List.of(BigTestPermissions.PERMISSION_2499,
+                            BigTestPermissions.PERMISSION_2325,
+                            BigTestPermissions.PERMISSION_1023,
+                            BigTestPermissions.PERMISSION_555,
+                            BigTestPermissions.PERMISSION_123,
+                            BigTestPermissions.PERMISSION_23)));
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().registerModule(BitPermissionJackson.getModule());
     private static final BitPermissionService BIT_PERMISSION_SERVICE =
             new BitPermissionService(Set.of(TestPermissions.class, BigTestPermissions.class));
 
@@ -120,6 +141,24 @@ class BitPermissionServiceTest {
                 .isEqualTo(Arrays.asList(BigTestPermissions.class.getEnumConstants()));
     }
 
+    @Test
+    void shouldPrecomputePermissionCoordinates() {
+        // given
+        final Set<Class<? extends Enum<?>>> enumClassesSet = Set.of(BigTestPermissions.class);
+
+        // when
+        final var enumClassPermissions =
+                createDomainClassPermissionMap(enumClassesSet).get(BigTestPermissions.class.getSimpleName());
+
+        // then
+        final var ordinal = BigTestPermissions.PERMISSION_2325.ordinal();
+        assertThat(enumClassPermissions.wordIndexes()[ordinal]).isEqualTo(ordinal / 64);
+        assertThat(enumClassPermissions.wordMasks()[ordinal]).isEqualTo(1L << (ordinal % 64));
+        assertThat(enumClassPermissions.digitIndexes()[ordinal]).isEqualTo(ordinal / 5);
+        assertThat(enumClassPermissions.digitMasks()[ordinal]).isEqualTo(1 << (ordinal % 5));
+        assertThat(enumClassPermissions.wordIndexes()).hasSize(BigTestPermissions.values().length);
+    }
+
     @Test
     void shouldNotAllowToModifyCreatedDomainClassPermissionMap() {
         // given
@@ -140,6 +179,23 @@ class BitPermissionServiceTest {
         assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
     }
 
+    @Test
+    void shouldLookUpEnumClassPermissionsByEnumClassIdentity() {
+
+        // when
+        final var known = BIT_PERMISSION_SERVICE.getEnumClassPermissions(TestPermissions.CREATE_PERMISSION);
+        final var unknown = BIT_PERMISSION_SERVICE.getEnumClassPermissions(SmallTestPermissions.PERMISSION_1);
+        final var duplicate = BIT_PERMISSION_SERVICE.getEnumClassPermissions(
+                io.github.alexanderbzhezinsky.bitpermission.enumeration.duplicate.TestPermissions.CREATE_PERMISSION);
+
+        // then
+        assertThat(known.enumClass()).isEqualTo(TestPermissions.class);
+        assertThat(known.domain()).isEqualTo(TEST_DOMAIN);
+        assertThat(BIT_PERMISSION_SERVICE.getEnumClassPermissions(TestPermissions.READ_PERMISSION)).isSameAs(known);
+        assertThat(unknown).isNull();
+        assertThat(duplicate).isNull();
+    }
+
     @Test
     void shouldReturnBitPermissions() {
 
@@ -160,6 +216,432 @@ class BitPermissionServiceTest {
         assertThat(testBitPermission.bitmask()).isEqualTo(TEST_BITMASK);
     }
 
+    @Test
+    void shouldReturnBase64UrlBitPermissionsWhenShorter() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(TestPermissions.class, BigTestPermissions.class),
+                EnumSet.of(BitmaskEncoding.BASE32, BitmaskEncoding.BASE64URL));
+
+        // when
+        final var bitPermissions = bitPermissionService.getBitPermissions(INPUT_PERMISSIONS);
+
+        // then
+        final var bigTestBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("BigTestPermissions"))
+                .findFirst().get();
+        final var testBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("TestPermissions"))
+                .findFirst().get();
+        assertThat(BitmaskEncoding.of(bigTestBitPermission.bitmask())).isEqualTo(BitmaskEncoding.BASE64URL);
+        assertThat(bigTestBitPermission.bitmask()).hasSizeLessThan(BIG_TEST_BITMASK.length());
+        assertThat(testBitPermission.bitmask()).isEqualTo(TEST_BITMASK);
+        assertThat(new HashSet<>(BIT_PERMISSION_SERVICE.getPermissions(bitPermissions)))
+                .isEqualTo(new HashSet<>(INPUT_PERMISSIONS));
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2325, bitPermissions))
+                .isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2324, bitPermissions))
+                .isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermissions(INPUT_PERMISSIONS, bitPermissions)).isTrue();
+    }
+
+    @Test
+    void shouldReturnSparseBitPermissionsWhenShorter() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(TestPermissions.class, BigTestPermissions.class),
+                EnumSet.of(BitmaskEncoding.BASE32, BitmaskEncoding.SPARSE));
+
+        // when
+        final var bitPermissions = bitPermissionService.getBitPermissions(INPUT_PERMISSIONS);
+
+        // then
+        final var bigTestBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("BigTestPermissions"))
+                .findFirst().get();
+        final var testBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("TestPermissions"))
+                .findFirst().get();
+        assertThat(BitmaskEncoding.of(bigTestBitPermission.bitmask())).isEqualTo(BitmaskEncoding.SPARSE);
+        assertThat(bigTestBitPermission.bitmask()).hasSizeLessThan(BIG_TEST_BITMASK.length() / 10);
+        assertThat(testBitPermission.bitmask()).isEqualTo(TEST_BITMASK);
+        assertThat(new HashSet<>(BIT_PERMISSION_SERVICE.getPermissions(bitPermissions)))
+                .isEqualTo(new HashSet<>(INPUT_PERMISSIONS));
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2325, bitPermissions))
+                .isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2324, bitPermissions))
+                .isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermissions(INPUT_PERMISSIONS, bitPermissions)).isTrue();
+    }
+
+    @Test
+    void shouldReturnComplementBitPermissionsForAllPermissions() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(TestPermissions.class, BigTestPermissions.class), EnumSet.allOf(BitmaskEncoding.class));
+        final var allPermissions = Stream.concat(
+                Arrays.stream(TestPermissions.values()),
+                Arrays.stream(BigTestPermissions.values())
+                        .filter(permission -> permission != BigTestPermissions.PERMISSION_2324))
+                .<Enum<?>>map(permission -> permission)
+                .toList();
+
+        // when
+        final var bitPermissions = bitPermissionService.getBitPermissions(allPermissions);
+
+        // then
+        final var bigTestBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("BigTestPermissions"))
+                .findFirst().get();
+        assertThat(BitmaskEncoding.of(bigTestBitPermission.bitmask())).isEqualTo(BitmaskEncoding.COMPLEMENT);
+        assertThat(bitPermissions).extracting(BitPermission::bitmask).allMatch(bitmask -> bitmask.length() <= 4);
+        assertThat(new HashSet<>(BIT_PERMISSION_SERVICE.getPermissions(bitPermissions)))
+                .isEqualTo(new HashSet<>(allPermissions));
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2325, bitPermissions))
+                .isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2324, bitPermissions))
+                .isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermissions(allPermissions, bitPermissions)).isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_2324), bitPermissions)).isFalse();
+    }
+
+    @ParameterizedTest(name = "should report exact encoded sizes in {0} format")
+    @EnumSource(TokenFormat.class)
+    void shouldReportExactEncodedSizes(TokenFormat tokenFormat) throws JsonProcessingException {
+
+        // when
+        final var encodedSizes = BIT_PERMISSION_SERVICE.getEncodedSizes(INPUT_PERMISSIONS, tokenFormat);
+
+        // then
+        assertThat(encodedSizes).containsOnlyKeys(BitmaskEncoding.values());
+        for (final var bitmaskEncoding : BitmaskEncoding.values()) {
+            final var bitPermissions = new BitPermissionService(
+                    Set.of(TestPermissions.class, BigTestPermissions.class), EnumSet.of(bitmaskEncoding))
+                    .getBitPermissions(INPUT_PERMISSIONS);
+            final var token = switch (tokenFormat) {
+                case JSON -> OBJECT_MAPPER.writeValueAsString(bitPermissions);
+                case JSON_OBJECT -> OBJECT_MAPPER.writeValueAsString(new BitPermissions(bitPermissions));
+                case COMPACT -> BitPermissionTokenCodec.encode(bitPermissions);
+            };
+            assertThat(encodedSizes.get(bitmaskEncoding)).as(bitmaskEncoding.name())
+                    .isEqualTo(token.getBytes(StandardCharsets.UTF_8).length)
+                    .isEqualTo(tokenFormat.encodedSize(bitPermissions));
+        }
+    }
+
+    @Test
+    void shouldIssueBitPermissionsWithinBudget() {
+        // given
+        final var maxBytes = TokenFormat.JSON.encodedSize(BIT_PERMISSION_SERVICE.getBitPermissions(INPUT_PERMISSIONS));
+
+        // when
+        final var bitPermissions =
+                BIT_PERMISSION_SERVICE.issueWithinBudget(INPUT_PERMISSIONS, TokenFormat.JSON, maxBytes);
+
+        // then
+        assertThat(bitPermissions).isEqualTo(BIT_PERMISSION_SERVICE.getBitPermissions(INPUT_PERMISSIONS));
+    }
+
+    @Test
+    void shouldFailToIssueBitPermissionsOverBudget() {
+        // given
+        final var maxBytes =
+                TokenFormat.JSON.encodedSize(BIT_PERMISSION_SERVICE.getBitPermissions(INPUT_PERMISSIONS)) - 1;
+
+        // when
+        final var thrown = catchThrowable(
+                () -> BIT_PERMISSION_SERVICE.issueWithinBudget(INPUT_PERMISSIONS, TokenFormat.JSON, maxBytes));
+
+        // then
+        assertThat(thrown).isInstanceOf(TokenSizeExceededException.class);
+        final var exception = (TokenSizeExceededException) thrown;
+        assertThat(exception.getMaxBytes()).isEqualTo(maxBytes);
+        assertThat(exception.getEncodedSize()).isEqualTo(maxBytes + 1);
+        assertThat(exception.getDomainSizes()).isEqualTo(Map.of(
+                "TestPermissions", "{\"TestPermissions@5\":\"p\"}".length(),
+                "BigTestPermissions", 8 + "BigTestPermissions".length() + 4 + BIG_TEST_BITMASK.length()));
+    }
+
+    @Test
+    void shouldIssueBitPermissionsWithPermissionLayout() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(TestPermissions.class, BigTestPermissions.class),
+                EnumSet.of(BitmaskEncoding.BASE32),
+                Set.of(BIG_TEST_PERMISSION_LAYOUT));
+
+        // when
+        final var bitPermissions = bitPermissionService.getBitPermissions(INPUT_PERMISSIONS);
+
+        // then
+        assertThat(bitPermissions).containsExactlyInAnyOrder(
+                new BitPermission("TestPermissions", 5, TEST_BITMASK),
+                new BitPermission("BigTestPermissions", 2500, "WC3v"));
+        assertThat(new HashSet<>(bitPermissionService.getPermissions(bitPermissions)))
+                .isEqualTo(new HashSet<>(INPUT_PERMISSIONS));
+        assertThat(bitPermissionService.getPermissions(BigTestPermissions.class, bitPermissions))
+                .containsExactlyInAnyOrderElementsOf(INPUT_PERMISSIONS.stream()
+                        .filter(BigTestPermissions.class::isInstance)
+                        .map(BigTestPermissions.class::cast)
+                        .toList());
+        assertThat(bitPermissionService.checkHasPermission(BigTestPermissions.PERMISSION_2325, bitPermissions))
+                .isTrue();
+        assertThat(bitPermissionService.checkHasPermission(BigTestPermissions.PERMISSION_2324, bitPermissions))
+                .isFalse();
+        assertThat(bitPermissionService.checkHasPermissions(INPUT_PERMISSIONS, bitPermissions)).isTrue();
+        assertThat(bitPermissionService.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_1), bitPermissions)).isFalse();
+        assertThat(bitPermissionService.getPermissionSet(bitPermissions))
+                .contains(BigTestPermissions.PERMISSION_0)
+                .doesNotContain(BigTestPermissions.PERMISSION_1);
+    }
+
+    @Test
+    void shouldDecodeBitPermissionsWithPreviousPermissionLayoutVersion() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(BigTestPermissions.class), EnumSet.of(BitmaskEncoding.BASE32), Set.of(BIG_TEST_PERMISSION_LAYOUT));
+        final var bitPermissions = List.of(new BitPermission("BigTestPermissions", 2500, "WB3"));
+
+        // when
+        final var permissions = bitPermissionService.getPermissions(bitPermissions);
+
+        // then
+        assertThat(permissions).isEqualTo(List.of(BigTestPermissions.PERMISSION_0, BigTestPermissions.PERMISSION_2499));
+        assertThat(bitPermissionService.checkHasPermission(BigTestPermissions.PERMISSION_2499, bitPermissions))
+                .isTrue();
+        assertThat(bitPermissionService.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_0, BigTestPermissions.PERMISSION_2499), bitPermissions)).isTrue();
+        assertThat(bitPermissionService.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_0, BigTestPermissions.PERMISSION_23), bitPermissions)).isFalse();
+        assertThat(bitPermissionService.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_0, BigTestPermissions.PERMISSION_2499),
+                bitPermissionService.parse(bitPermissions))).isTrue();
+    }
+
+    @Test
+    void shouldCheckCompiledRequirementAgainstEncodedPermissionLayoutBitmask() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(BigTestPermissions.class), EnumSet.of(BitmaskEncoding.BASE32), Set.of(BIG_TEST_PERMISSION_LAYOUT));
+        final var requirement = bitPermissionService.compile(
+                List.of(BigTestPermissions.PERMISSION_2499, BigTestPermissions.PERMISSION_1000));
+        final var sparseBitPermissions = List.of(new BitPermission("BigTestPermissions", 2500, "WBxAof"));
+        final var unknownVersionBitPermissions = List.of(new BitPermission("BigTestPermissions", 2500, "WD3"));
+
+        // when
+        final var satisfied = bitPermissionService.check(requirement, sparseBitPermissions);
+        final var thrown = catchThrowable(() -> bitPermissionService.check(requirement, unknownVersionBitPermissions));
+
+        // then
+        assertThat(bitPermissionService.getPermissions(sparseBitPermissions))
+                .isEqualTo(List.of(BigTestPermissions.PERMISSION_1000, BigTestPermissions.PERMISSION_2499));
+        assertThat(satisfied).isTrue();
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotDecodeBitPermissionsWithUnknownPermissionLayout() {
+        // given
+        final var bitPermissions = List.of(new BitPermission("BigTestPermissions", 2500, "WC3v"));
+
+        // when
+        final var thrown = catchThrowable(() -> BIT_PERMISSION_SERVICE.getPermissions(bitPermissions));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotAllowPermissionLayoutOfUnknownEnumClass() {
+
+        // when
+        final var thrown = catchThrowable(() -> new BitPermissionService(
+                Set.of(TestPermissions.class), EnumSet.of(BitmaskEncoding.BASE32), Set.of(BIG_TEST_PERMISSION_LAYOUT)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldIssueSingleBitPermissionForCompositeDomain() {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(BigTestPermissions.class),
+                EnumSet.of(BitmaskEncoding.BASE32),
+                Set.of(),
+                Set.of(new CompositeDomain(
+                        "CompositeTestPermissions", List.of(TestPermissions.class, SmallTestPermissions.class))));
+        final var permissions = List.of(
+                TestPermissions.CREATE_PERMISSION,
+                SmallTestPermissions.PERMISSION_0,
+                SmallTestPermissions.PERMISSION_127,
+                BigTestPermissions.PERMISSION_2499);
+
+        // when
+        final var bitPermissions = bitPermissionService.getBitPermissions(permissions);
+
+        // then
+        final var compositeBitPermission = bitPermissions.stream()
+                .filter(bitPermission -> bitPermission.domain().equals("CompositeTestPermissions"))
+                .findFirst().get();
+        assertThat(bitPermissions).hasSize(2);
+        assertThat(compositeBitPermission.revision()).isEqualTo(5 + 128);
+        assertThat(compositeBitPermission.bitmask()).isEqualTo("400000000000000000000000011");
+        assertThat(new HashSet<>(bitPermissionService.getPermissions(bitPermissions)))
+                .isEqualTo(new HashSet<>(permissions));
+        assertThat(bitPermissionService.getPermissions(SmallTestPermissions.class, bitPermissions))
+                .containsExactly(SmallTestPermissions.PERMISSION_0, SmallTestPermissions.PERMISSION_127);
+        assertThat(bitPermissionService.getPermissions(TestPermissions.class, bitPermissions))
+                .containsExactly(TestPermissions.CREATE_PERMISSION);
+        assertThat(bitPermissionService.checkHasPermission(SmallTestPermissions.PERMISSION_127, bitPermissions))
+                .isTrue();
+        assertThat(bitPermissionService.checkHasPermission(SmallTestPermissions.PERMISSION_1, bitPermissions))
+                .isFalse();
+        assertThat(bitPermissionService.checkHasPermission(TestPermissions.READ_PERMISSION, bitPermissions))
+                .isFalse();
+        assertThat(bitPermissionService.checkHasPermissions(permissions, bitPermissions)).isTrue();
+        assertThat(bitPermissionService.getPermissionSet(bitPermissions))
+                .containsExactlyInAnyOrderElementsOf(permissions);
+    }
+
+    @Test
+    void shouldNotAllowEnumClassInManyDomains() {
+        // given
+        final var compositeDomain = new CompositeDomain(
+                "CompositeTestPermissions", List.of(TestPermissions.class, SmallTestPermissions.class));
+
+        // when
+        final var thrown = catchThrowable(() -> new BitPermissionService(
+                Set.of(TestPermissions.class), EnumSet.of(BitmaskEncoding.BASE32), Set.of(), Set.of(compositeDomain)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotAllowCompositeDomainNamedAsEnumClass() {
+        // given
+        final var compositeDomain = new CompositeDomain("TestPermissions", List.of(SmallTestPermissions.class));
+
+        // when
+        final var thrown = catchThrowable(() -> new BitPermissionService(
+                Set.of(TestPermissions.class), EnumSet.of(BitmaskEncoding.BASE32), Set.of(), Set.of(compositeDomain)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest(name = "should not allow composite domain named \"{0}\"")
+    @ValueSource(strings = {"Odd@Name", "Odd.Name", "Odd~Name", "1OddName", " OddName"})
+    void shouldNotAllowCompositeDomainNameNotBeingJavaIdentifier(String domain) {
+
+        // when
+        final var thrown = catchThrowable(() -> new CompositeDomain(domain, List.of(SmallTestPermissions.class)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldDeduplicateScopedBitPermissions() {
+        // given
+        final var scopedPermissions = Map.of(
+                "project-a", INPUT_PERMISSIONS,
+                "project-b", List.of(
+                        TestPermissions.CREATE_PERMISSION,
+                        TestPermissions.DELETE_PERMISSION,
+                        TestPermissions.PERMISSION_1023),
+                "project-c", List.of(TestPermissions.READ_PERMISSION));
+
+        // when
+        final var scopedBitPermissions = BIT_PERMISSION_SERVICE.getScopedBitPermissions(scopedPermissions);
+
+        // then
+        assertThat(scopedBitPermissions.dictionary()).containsExactlyInAnyOrder(
+                new BitPermission(TEST_DOMAIN, TEST_REVISION, TEST_BITMASK),
+                new BitPermission("BigTestPermissions", 2500, BIG_TEST_BITMASK),
+                new BitPermission(TEST_DOMAIN, TEST_REVISION, "2"));
+        assertThat(scopedBitPermissions.scopes()).containsOnlyKeys("project-a", "project-b", "project-c");
+        assertThat(scopedBitPermissions.scopes().get("project-a")).contains(
+                scopedBitPermissions.scopes().get("project-b").get(0));
+    }
+
+    @Test
+    void shouldCheckScopedPermissions() {
+        // given
+        final var scopedBitPermissions = BIT_PERMISSION_SERVICE.getScopedBitPermissions(Map.of(
+                "project-a", INPUT_PERMISSIONS,
+                "project-b", List.of(TestPermissions.READ_PERMISSION)));
+
+        // when
+        final var scopedToken = BIT_PERMISSION_SERVICE.parse(scopedBitPermissions);
+
+        // then
+        assertThat(scopedToken.getScopes()).containsExactlyInAnyOrder("project-a", "project-b");
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(
+                "project-a", BigTestPermissions.PERMISSION_2325, scopedToken)).isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(
+                "project-b", BigTestPermissions.PERMISSION_2325, scopedToken)).isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(
+                "project-b", TestPermissions.READ_PERMISSION, scopedToken)).isTrue();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(
+                "project-a", TestPermissions.READ_PERMISSION, scopedToken)).isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.checkHasPermission(
+                "project-z", TestPermissions.READ_PERMISSION, scopedToken)).isFalse();
+        assertThat(new HashSet<>(BIT_PERMISSION_SERVICE.getPermissions(scopedToken.getParsedToken("project-a"))))
+                .isEqualTo(new HashSet<>(INPUT_PERMISSIONS));
+    }
+
+    @Test
+    void shouldNotParseScopedBitPermissionsWithUnknownDictionaryIndex() {
+        // given
+        final var scopedBitPermissions = new ScopedBitPermissions(
+                List.of(new BitPermission(TEST_DOMAIN, TEST_REVISION, TEST_BITMASK)),
+                Map.of("project-a", List.of(0, 1)));
+
+        // when
+        final var thrown = catchThrowable(() -> BIT_PERMISSION_SERVICE.parse(scopedBitPermissions));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotParseScopedBitPermissionsWithNullDictionaryIndex() {
+        // given
+        final var scopedBitPermissions = new ScopedBitPermissions(
+                List.of(new BitPermission(TEST_DOMAIN, TEST_REVISION, TEST_BITMASK)),
+                Map.of("project-a", Arrays.asList(0, null)));
+
+        // when
+        final var thrown = catchThrowable(() -> BIT_PERMISSION_SERVICE.parse(scopedBitPermissions));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReturnDomainRevisions() {
+
+        // when
+        final var domainRevisions = BIT_PERMISSION_SERVICE.getDomainRevisions();
+
+        // then
+        assertThat(domainRevisions).isEqualTo(Map.of(TEST_DOMAIN, TEST_REVISION, "BigTestPermissions", 2500));
+    }
+
+    @Test
+    void shouldNotAllowEmptyBitmaskEncodings() {
+
+        // when
+        final var thrown = catchThrowable(() -> new BitPermissionService(Set.of(TestPermissions.class), Set.of()));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void shouldReturnEmptyBitPermissionsWhenEmptyPermissionsProvided() {
 
@@ -184,6 +666,75 @@ class BitPermissionServiceTest {
                 outputPermission -> assertThat(INPUT_PERMISSIONS.contains(outputPermission)).isTrue());
     }
 
+    @Test
+    void shouldParseOnlyFirstKnownValidBitPermissionPerDomain() {
+        // given
+        final var bitPermissions = Arrays.asList(
+                null,
+                new BitPermission(TEST_DOMAIN, 0, "1"),
+                new BitPermission(SmallTestPermissions.class.getSimpleName(), 128, "1"),
+                TEST_BIT_PERMISSION,
+                new BitPermission(TEST_DOMAIN, TEST_REVISION, "1"));
+
+        // when
+        final var parsedToken = BIT_PERMISSION_SERVICE.parse(bitPermissions);
+
+        // then
+        assertThat(parsedToken.isEmpty()).isFalse();
+        final List<? extends Enum<?>> outputPermissions = BIT_PERMISSION_SERVICE.getPermissions(parsedToken);
+        assertThat(outputPermissions).isEqualTo(List.of(
+                TestPermissions.CREATE_PERMISSION,
+                TestPermissions.DELETE_PERMISSION,
+                TestPermissions.PERMISSION_1023));
+    }
+
+    @Test
+    void shouldReturnPermissionSet() {
+        // given
+        final var testPermissionSet = BIT_PERMISSION_SERVICE.getPermissionSet(List.of(TEST_BIT_PERMISSION));
+
+        // when
+        final var permissionSet = BIT_PERMISSION_SERVICE.getPermissionSet(BIT_PERMISSIONS);
+
+        // then
+        assertThat(permissionSet).hasSize(INPUT_PERMISSIONS.size());
+        assertThat(permissionSet).isEqualTo(new HashSet<>(INPUT_PERMISSIONS));
+        assertThat(permissionSet.contains(BigTestPermissions.PERMISSION_2325)).isTrue();
+        assertThat(permissionSet.contains(BigTestPermissions.PERMISSION_2324)).isFalse();
+        assertThat(permissionSet.contains(SmallTestPermissions.PERMISSION_1)).isFalse();
+        assertThat(permissionSet.contains("CREATE_PERMISSION")).isFalse();
+        assertThat(permissionSet.containsAll(testPermissionSet)).isTrue();
+        assertThat(testPermissionSet.containsAll(permissionSet)).isFalse();
+        assertThat(catchThrowable(() -> permissionSet.add(TestPermissions.READ_PERMISSION)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(catchThrowable(permissionSet::clear)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldReturnTypedPermissions() {
+
+        // when
+        final var bigTestPermissions = BIT_PERMISSION_SERVICE.getPermissions(BigTestPermissions.class, BIT_PERMISSIONS);
+        final var testPermissions = BIT_PERMISSION_SERVICE.getPermissions(
+                TestPermissions.class, BIT_PERMISSION_SERVICE.parse(BIT_PERMISSIONS));
+        final var smallTestPermissions = BIT_PERMISSION_SERVICE.getPermissions(SmallTestPermissions.class, BIT_PERMISSIONS);
+
+        // then
+        assertThat(bigTestPermissions).containsExactly(
+                BigTestPermissions.PERMISSION_0,
+                BigTestPermissions.PERMISSION_23,
+                BigTestPermissions.PERMISSION_123,
+                BigTestPermissions.PERMISSION_555,
+                BigTestPermissions.PERMISSION_1023,
+                BigTestPermissions.PERMISSION_2325,
+                BigTestPermissions.PERMISSION_2499);
+        assertThat(testPermissions).containsExactly(
+                TestPermissions.CREATE_PERMISSION,
+                TestPermissions.DELETE_PERMISSION,
+                TestPermissions.PERMISSION_1023);
+        assertThat(smallTestPermissions).isEmpty();
+    }
+
     @ParameterizedTest(name = "should return {0} when checked permissions {1} {2} in BIT_PERMISSIONS")
     @MethodSource("getCheckHasPermissionsTestCases")
     void shouldCheckHasPermissions(boolean expected, List<? extends Enum<?>> permissions, String legend) {
@@ -196,6 +747,47 @@ class BitPermissionServiceTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @ParameterizedTest(name = "should return {0} when compiled permissions {1} {2} in BIT_PERMISSIONS")
+    @MethodSource("getCheckHasPermissionsTestCases")
+    void shouldCheckCompiledPermissionRequirement(boolean expected, List<? extends Enum<?>> permissions, String legend) {
+        // given
+        final var requirement = BIT_PERMISSION_SERVICE.compile(permissions);
+
+        // when
+        final var actual = BIT_PERMISSION_SERVICE.check(requirement, BIT_PERMISSIONS);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldCompileUnsatisfiablePermissionRequirement() {
+
+        // when
+        final var empty = BIT_PERMISSION_SERVICE.compile(List.of());
+        final var unknown = BIT_PERMISSION_SERVICE.compile(
+                List.of(TestPermissions.CREATE_PERMISSION, SmallTestPermissions.PERMISSION_1));
+
+        // then
+        assertThat(empty.isSatisfiable()).isFalse();
+        assertThat(unknown.isSatisfiable()).isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.check(empty, BIT_PERMISSIONS)).isFalse();
+        assertThat(BIT_PERMISSION_SERVICE.check(unknown, BIT_PERMISSIONS)).isFalse();
+    }
+
+    @ParameterizedTest(name = "should return {0} when checked permissions {1} {2} in parsed BIT_PERMISSIONS")
+    @MethodSource("getCheckHasPermissionsTestCases")
+    void shouldCheckHasPermissionsInParsedToken(boolean expected, List<? extends Enum<?>> permissions, String legend) {
+        // given
+        final var parsedToken = BIT_PERMISSION_SERVICE.parse(BIT_PERMISSIONS);
+
+        // when
+        final var actual = BIT_PERMISSION_SERVICE.checkHasPermissions(permissions, parsedToken);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
     private static Stream<Arguments> getCheckHasPermissionsTestCases() {
         return Stream.of(
                 Arguments.of(
@@ -242,6 +834,19 @@ class BitPermissionServiceTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @ParameterizedTest(name = "should return {0} when checked permission {1} {2} in parsed BIT_PERMISSIONS")
+    @MethodSource("getCheckHasPermissionTestCases")
+    <T extends Enum<T>> void shouldCheckHasPermissionInParsedToken(boolean expected, T permission, String legend) {
+        // given
+        final var parsedToken = BIT_PERMISSION_SERVICE.parse(BIT_PERMISSIONS);
+
+        // when
+        final var actual = BIT_PERMISSION_SERVICE.checkHasPermission(permission, parsedToken);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
     private static Stream<Arguments> getCheckHasPermissionTestCases() {
         return Stream.of(
                 Arguments.of(
@@ -275,6 +880,83 @@ class BitPermissionServiceTest {
         );
     }
 
+    @Test
+    void shouldNotHavePermissionBeyondBitmaskLength() {
+        // given
+        final var bitPermissions = List.of(new BitPermission(
+                BigTestPermissions.class.getSimpleName(), BigTestPermissions.values().length, "1"));
+
+        // when
+        final var hasFirst = BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_0, bitPermissions);
+        final var hasLast = BIT_PERMISSION_SERVICE.checkHasPermission(BigTestPermissions.PERMISSION_2499, bitPermissions);
+
+        // then
+        assertThat(hasFirst).isTrue();
+        assertThat(hasLast).isFalse();
+    }
+
+    @Test
+    void shouldFailToCheckPermissionWithInvalidBitmaskDigit() {
+        // given
+        final var bitPermissions = List.of(new BitPermission(TEST_DOMAIN, TEST_REVISION, "!"));
+
+        // when
+        final var thrown = catchThrowable(
+                () -> BIT_PERMISSION_SERVICE.checkHasPermission(TestPermissions.CREATE_PERMISSION, bitPermissions));
+
+        // then
+        assertThat(thrown).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldCheckEachPermission() {
+        // given
+        final var candidates = getCheckHasPermissionTestCases()
+                .map(arguments -> (Enum<?>) arguments.get()[1])
+                .toList();
+        final var expected = getCheckHasPermissionTestCases()
+                .map(arguments -> (Boolean) arguments.get()[0])
+                .toList();
+
+        // when
+        final var actual = BIT_PERMISSION_SERVICE.checkEach(candidates, BIT_PERMISSIONS);
+
+        // then
+        for (int i = 0; i < candidates.size(); i++) {
+            assertThat(actual.get(i)).as(candidates.get(i).name()).isEqualTo(expected.get(i));
+        }
+    }
+
+    @ParameterizedTest(name = "should check every permission against {0} bitmask")
+    @EnumSource(value = BitmaskEncoding.class, names = {"SPARSE", "COMPLEMENT", "CHUNKED"})
+    void shouldCheckEachPermissionAgainstDecodedBitmask(BitmaskEncoding bitmaskEncoding) {
+        // given
+        final var bitPermissionService =
+                new BitPermissionService(Set.of(BigTestPermissions.class), EnumSet.of(bitmaskEncoding));
+        final var candidates = List.of(BigTestPermissions.values());
+        final var granted = candidates.stream()
+                .filter(permission -> permission.ordinal() % 7 != 0 && permission.ordinal() < 2400)
+                .toList();
+        final var bitPermissions = bitPermissionService.getBitPermissions(granted);
+        final var parsedToken = bitPermissionService.parse(bitPermissions);
+        final var permissionSet = bitPermissionService.getPermissionSet(bitPermissions);
+
+        // when
+        final var actual = bitPermissionService.checkEach(candidates, parsedToken);
+
+        // then
+        assertThat(bitPermissions.get(0).bitmask()).startsWith(bitmaskEncoding.getPrefix());
+        assertThat(actual.cardinality()).isEqualTo(granted.size());
+        for (final var candidate : candidates) {
+            final var expected = granted.contains(candidate);
+            assertThat(actual.get(candidate.ordinal())).as(candidate.name()).isEqualTo(expected);
+            assertThat(permissionSet.contains(candidate)).as(candidate.name()).isEqualTo(expected);
+        }
+        assertThat(bitPermissionService.checkHasPermissions(granted, parsedToken)).isTrue();
+        assertThat(bitPermissionService.checkHasPermissions(
+                List.of(BigTestPermissions.PERMISSION_1, BigTestPermissions.PERMISSION_7), parsedToken)).isFalse();
+    }
+
     @ParameterizedTest(name = "should return empty permission list when invalid bitPermission provided: {0}")
     @MethodSource("getInvalidBitPermissionTestCases")
     void shouldNotReturnPermissions(String legend, List<BitPermission> bitPermissions) {
@@ -287,6 +969,37 @@ class BitPermissionServiceTest {
         assertThat(outputPermissions).isEmpty();
     }
 
+    @ParameterizedTest(name = "should not have permissions when invalid bitPermission provided: {0}")
+    @MethodSource("getInvalidBitPermissionTestCases")
+    void shouldNotHavePermissions(String legend, List<BitPermission> bitPermissions) {
+
+        // when
+        final var hasPermissions = BIT_PERMISSION_SERVICE.checkHasPermissions(
+                List.of(TestPermissions.CREATE_PERMISSION), bitPermissions);
+        final var hasPermission = BIT_PERMISSION_SERVICE.checkHasPermission(
+                TestPermissions.CREATE_PERMISSION, bitPermissions);
+
+        // then
+        assertThat(hasPermissions).isFalse();
+        assertThat(hasPermission).isFalse();
+    }
+
+    @ParameterizedTest(name = "should skip invalid entry in parsed token builder: {0}")
+    @MethodSource("getInvalidBitPermissionTestCases")
+    void shouldSkipInvalidEntryInParsedTokenBuilder(String legend, List<BitPermission> bitPermissions) {
+        // given
+        final var builder = BIT_PERMISSION_SERVICE.newParsedTokenBuilder();
+        final var bitPermission = bitPermissions.get(0);
+
+        // when
+        final var added = bitPermission != null
+                && builder.add(bitPermission.domain(), bitPermission.revision(), bitPermission.bitmask());
+
+        // then
+        assertThat(added).isFalse();
+        assertThat(builder.build().isEmpty()).isTrue();
+    }
+
     private static Stream<Arguments> getInvalidBitPermissionTestCases() {
         return Stream.of(
                 Arguments.of(
@@ -0,0 +1,91 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class BitPermissionTokenCodecTest {
+
+    private static final List<BitPermission> BIT_PERMISSIONS = List.of(
+            new BitPermission("TestPermissions", 5, "h"),
+            new BitPermission("BigTestPermissions", 2500, "8000000000000000000080001"),
+            new BitPermission("SparseTestPermissions", -1, "xA_-"));
+    private static final String TOKEN =
+            "TestPermissions.5.h~BigTestPermissions.2500.8000000000000000000080001~SparseTestPermissions.-1.xA_-";
+
+    @Test
+    void shouldEncodeBitPermissions() {
+
+        // when
+        final var token = BitPermissionTokenCodec.encode(BIT_PERMISSIONS);
+
+        // then
+        assertThat(token).isEqualTo(TOKEN);
+        assertThat(token).hasSize(BitPermissionTokenCodec.encodedLength(BIT_PERMISSIONS));
+    }
+
+    @Test
+    void shouldDecodeBitPermissions() {
+
+        // when
+        final var bitPermissions = BitPermissionTokenCodec.decode(TOKEN);
+
+        // then
+        assertThat(bitPermissions).isEqualTo(BIT_PERMISSIONS);
+    }
+
+    @Test
+    void shouldEncodeAndDecodeEmptyBitPermissions() {
+
+        // when
+        final var token = BitPermissionTokenCodec.encode(List.of());
+
+        // then
+        assertThat(token).isEmpty();
+        assertThat(BitPermissionTokenCodec.decode(token)).isEmpty();
+    }
+
+    @ParameterizedTest(name = "should not decode malformed token \"{0}\"")
+    @MethodSource("getMalformedTokens")
+    void shouldNotDecodeMalformedToken(String token) {
+
+        // when
+        final var thrown = catchThrowable(() -> BitPermissionTokenCodec.decode(token));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Stream<String> getMalformedTokens() {
+        return Stream.of(
+                "TestPermissions",
+                "TestPermissions.5",
+                "TestPermissions.5.",
+                ".5.h",
+                "TestPermissions..h",
+                "TestPermissions.five.h",
+                "TestPermissions.5.h~",
+                "TestPermissions.5.h.g",
+                "TestPermissions~5.h",
+                "TestPermissions.5.h~~BigTestPermissions.2500.1");
+    }
+
+    @Test
+    void shouldNotEncodeDividerInBitmask() {
+        // given
+        final var bitPermissions = List.of(new BitPermission("TestPermissions", 5, "h~g"));
+
+        // when
+        final var thrown = catchThrowable(() -> BitPermissionTokenCodec.encode(bitPermissions));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
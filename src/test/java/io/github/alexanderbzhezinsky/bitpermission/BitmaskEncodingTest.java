@@ -0,0 +1,250 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class BitmaskEncodingTest {
+
+    private static final int DOMAIN_SIZE = 2500;
+
+    @ParameterizedTest(name = "should encode and decode {0} bitmask of {1}")
+    @MethodSource("getRoundTripTestCases")
+    void shouldEncodeAndDecodeBitmask(BitmaskEncoding bitmaskEncoding, String legend, PermissionBitSet bitSet) {
+
+        // when
+        final var bitmask = bitmaskEncoding.encode(bitSet, DOMAIN_SIZE);
+        final var decoded = bitmaskEncoding.decode(bitmask, DOMAIN_SIZE, DOMAIN_SIZE);
+
+        // then
+        assertThat(BitmaskEncoding.of(bitmask)).isEqualTo(bitmaskEncoding);
+        assertThat(bitmask).hasSize(bitmaskEncoding.encodedLength(bitSet, DOMAIN_SIZE));
+        assertThat(decoded).isEqualTo(bitSet);
+        for (int bitIndex = 0; bitIndex < DOMAIN_SIZE; bitIndex++) {
+            assertThat(bitmaskEncoding.isSet(bitmask, DOMAIN_SIZE, bitIndex)).as("bit %d", bitIndex)
+                    .isEqualTo(bitSet.get(bitIndex));
+        }
+    }
+
+    @ParameterizedTest(name = "should check required bits against {0} bitmask of {1}")
+    @MethodSource("getRoundTripTestCases")
+    void shouldCheckRequiredBitsWithoutDecoding(BitmaskEncoding bitmaskEncoding,
+                                                String legend,
+                                                PermissionBitSet bitSet) {
+        // given
+        final var bitmask = bitmaskEncoding.encode(bitSet, DOMAIN_SIZE);
+        final var firstClearBit = bitSet.nextClearBit(0);
+        final var withClearBit = bitSet.or(bitSetOf(firstClearBit));
+
+        // when
+        final var containsNone = bitmaskEncoding.containsAll(bitmask, DOMAIN_SIZE, new int[0]);
+        final var containsAll = bitmaskEncoding.containsAll(bitmask, DOMAIN_SIZE, bitIndexesOf(bitSet));
+        final var containsClearBit = bitmaskEncoding.containsAll(bitmask, DOMAIN_SIZE, bitIndexesOf(withClearBit));
+
+        // then
+        assertThat(containsNone).isTrue();
+        assertThat(containsAll).isTrue();
+        assertThat(containsClearBit).isFalse();
+    }
+
+    private static Stream<Arguments> getRoundTripTestCases() {
+        return Arrays.stream(BitmaskEncoding.values())
+                .flatMap(bitmaskEncoding -> Stream.of(
+                        Arguments.of(bitmaskEncoding, "no bits", bitSetOf()),
+                        Arguments.of(bitmaskEncoding, "first bit", bitSetOf(0)),
+                        Arguments.of(bitmaskEncoding, "last bit", bitSetOf(DOMAIN_SIZE - 1)),
+                        Arguments.of(bitmaskEncoding, "sparse bits", bitSetOf(0, 23, 123, 555, 1023, 2325, 2499)),
+                        Arguments.of(bitmaskEncoding, "random bits", randomBitSet(new Random(DOMAIN_SIZE), 2)),
+                        Arguments.of(bitmaskEncoding, "all bits", randomBitSet(new Random(DOMAIN_SIZE), 1)),
+                        Arguments.of(bitmaskEncoding, "clustered bits", clusteredBitSet())));
+    }
+
+    @Test
+    void shouldEncodeSparseBitmaskShorterThanDenseForFewBits() {
+        // given
+        final var bitSet = bitSetOf(0, 23, 123, 555, 1023, 2325, 2499);
+
+        // when
+        final var sparseLength = BitmaskEncoding.SPARSE.encodedLength(bitSet, DOMAIN_SIZE);
+        final var denseLength = BitmaskEncoding.BASE32.encodedLength(bitSet, DOMAIN_SIZE);
+
+        // then
+        assertThat(sparseLength).isLessThan(denseLength / 10);
+    }
+
+    @Test
+    void shouldDetectLegacyBase32Bitmask() {
+
+        // then
+        assertThat(BitmaskEncoding.of("g000v")).isEqualTo(BitmaskEncoding.BASE32);
+        assertThat(BitmaskEncoding.of("V")).isEqualTo(BitmaskEncoding.BASE32);
+        assertThat(BitmaskEncoding.of("")).isEqualTo(BitmaskEncoding.BASE32);
+    }
+
+    @Test
+    void shouldNotDecodeTruncatedSparseBitmask() {
+
+        // when
+        final var thrown = catchThrowable(() -> BitmaskEncoding.SPARSE.decode("xg", DOMAIN_SIZE, DOMAIN_SIZE));
+
+        // then
+        assertThat(thrown).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldIgnoreSparseBitsBeyondDomainSize() {
+        // given
+        final var bitmask = BitmaskEncoding.SPARSE.encode(bitSetOf(1, 100_000), DOMAIN_SIZE);
+
+        // when
+        final var decoded = BitmaskEncoding.SPARSE.decode(bitmask, DOMAIN_SIZE, DOMAIN_SIZE);
+
+        // then
+        assertThat(decoded).isEqualTo(bitSetOf(1));
+    }
+
+    @Test
+    void shouldEncodeAllBitsAsBareComplementPrefix() {
+        // given
+        final var bitSet = randomBitSet(new Random(DOMAIN_SIZE), 1);
+
+        // when
+        final var bitmask = BitmaskEncoding.COMPLEMENT.encode(bitSet, DOMAIN_SIZE);
+
+        // then
+        assertThat(bitmask).isEqualTo("y");
+        assertThat(BitmaskEncoding.COMPLEMENT.decode(bitmask, DOMAIN_SIZE, DOMAIN_SIZE)).isEqualTo(bitSet);
+    }
+
+    @Test
+    void shouldNotSetComplementBitsBeyondUniverse() {
+        // given
+        final var bitmask = BitmaskEncoding.COMPLEMENT.encode(bitSetOf(0, 2), 3);
+
+        // when
+        final var decoded = BitmaskEncoding.COMPLEMENT.decode(bitmask, 3, DOMAIN_SIZE);
+
+        // then
+        assertThat(decoded).isEqualTo(bitSetOf(0, 2));
+        assertThat(BitmaskEncoding.COMPLEMENT.isSet(bitmask, 3, 3)).isFalse();
+        assertThat(BitmaskEncoding.COMPLEMENT.containsAll(bitmask, 3, new int[]{0, 2})).isTrue();
+        assertThat(BitmaskEncoding.COMPLEMENT.containsAll(bitmask, 3, new int[]{0, 3})).isFalse();
+    }
+
+    @Test
+    void shouldNotEncodeComplementBitsBeyondUniverse() {
+        // given
+        final var bitSet = bitSetOf(0, 3);
+
+        // when
+        final var thrown = catchThrowable(() -> BitmaskEncoding.COMPLEMENT.encode(bitSet, 3));
+
+        // then
+        assertThat(BitmaskEncoding.COMPLEMENT.encodedLength(bitSet, 3)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldEncodeClusteredBitmaskShorterThanOtherEncodings() {
+        // given
+        final var bitSet = clusteredBitSet();
+
+        // when
+        final var chunkedLength = BitmaskEncoding.CHUNKED.encodedLength(bitSet, DOMAIN_SIZE);
+
+        // then
+        Arrays.stream(BitmaskEncoding.values())
+                .filter(bitmaskEncoding -> bitmaskEncoding != BitmaskEncoding.CHUNKED)
+                .forEach(bitmaskEncoding -> assertThat(chunkedLength)
+                        .as(bitmaskEncoding.name())
+                        .isLessThan(bitmaskEncoding.encodedLength(bitSet, DOMAIN_SIZE)));
+    }
+
+    @Test
+    void shouldCheckRequiredBitsAcrossChunks() {
+        // given
+        final var bitmask = BitmaskEncoding.CHUNKED.encode(clusteredBitSet(), DOMAIN_SIZE);
+
+        // when
+        final var containsClusters =
+                BitmaskEncoding.CHUNKED.containsAll(bitmask, DOMAIN_SIZE, new int[]{0, 63, 64, 299, 1000, 1099, 1600});
+        final var containsAbsentChunk =
+                BitmaskEncoding.CHUNKED.containsAll(bitmask, DOMAIN_SIZE, new int[]{0, 700, 1600});
+        final var containsClearBitInChunk =
+                BitmaskEncoding.CHUNKED.containsAll(bitmask, DOMAIN_SIZE, new int[]{1500, 1501});
+
+        // then
+        assertThat(containsClusters).isTrue();
+        assertThat(containsAbsentChunk).isFalse();
+        assertThat(containsClearBitInChunk).isFalse();
+    }
+
+    @Test
+    void shouldNotDecodeChunkedBitmaskWithRunOutOfChunk() {
+
+        // when
+        final var thrown = catchThrowable(() -> BitmaskEncoding.CHUNKED.decode("zAg__", DOMAIN_SIZE, DOMAIN_SIZE));
+
+        // then
+        assertThat(thrown).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldNotDecodeTruncatedChunkedBitmask() {
+
+        // when
+        final var thrown = catchThrowable(() -> BitmaskEncoding.CHUNKED.decode("zAA", DOMAIN_SIZE, DOMAIN_SIZE));
+
+        // then
+        assertThat(thrown).isInstanceOf(NumberFormatException.class);
+    }
+
+    static PermissionBitSet bitSetOf(int... bitIndexes) {
+        final var bitSet = new PermissionBitSet(Arrays.stream(bitIndexes).max().orElse(0) + 1);
+        Arrays.stream(bitIndexes).forEach(bitSet::set);
+        return bitSet;
+    }
+
+    private static int[] bitIndexesOf(PermissionBitSet bitSet) {
+        final var bitIndexes = new int[bitSet.cardinality()];
+        var count = 0;
+        for (int bitIndex = bitSet.nextSetBit(0); bitIndex >= 0; bitIndex = bitSet.nextSetBit(bitIndex + 1)) {
+            bitIndexes[count++] = bitIndex;
+        }
+        return bitIndexes;
+    }
+
+    private static PermissionBitSet clusteredBitSet() {
+        final var bitSet = new PermissionBitSet(DOMAIN_SIZE);
+        bitSet.set(0, 300);
+        bitSet.set(1000, 1100);
+        bitSet.set(1500);
+        bitSet.set(1600);
+        final var random = new Random(DOMAIN_SIZE);
+        for (int bitIndex = 2400; bitIndex < DOMAIN_SIZE; bitIndex++) {
+            if (random.nextBoolean()) {
+                bitSet.set(bitIndex);
+            }
+        }
+        return bitSet;
+    }
+
+    private static PermissionBitSet randomBitSet(Random random, int oneInEvery) {
+        final var bitSet = new PermissionBitSet(DOMAIN_SIZE);
+        for (int bitIndex = 0; bitIndex < DOMAIN_SIZE; bitIndex++) {
+            if (random.nextInt(oneInEvery) == 0) {
+                bitSet.set(bitIndex);
+            }
+        }
+        return bitSet;
+    }
+
+}
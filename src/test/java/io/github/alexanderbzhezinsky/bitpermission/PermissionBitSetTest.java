@@ -0,0 +1,131 @@
+package io.github.alexanderbzhezinsky.bitpermission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionBitSetTest {
+
+    @Test
+    void shouldSetAndGetBits() {
+        // given
+        final var bitSet = new PermissionBitSet(2500);
+
+        // when
+        bitSet.set(0);
+        bitSet.set(63);
+        bitSet.set(64);
+        bitSet.set(2499);
+
+        // then
+        assertThat(bitSet.get(0)).isTrue();
+        assertThat(bitSet.get(63)).isTrue();
+        assertThat(bitSet.get(64)).isTrue();
+        assertThat(bitSet.get(2499)).isTrue();
+        assertThat(bitSet.get(1)).isFalse();
+        assertThat(bitSet.get(10_000)).isFalse();
+        assertThat(bitSet.cardinality()).isEqualTo(4);
+        assertThat(bitSet.length()).isEqualTo(2500);
+        assertThat(new PermissionBitSet(2500).length()).isZero();
+    }
+
+    @Test
+    void shouldSetBitRanges() {
+        // given
+        final var bitSet = new PermissionBitSet(2500);
+
+        // when
+        bitSet.set(3, 3);
+        bitSet.set(5, 9);
+        bitSet.set(60, 200);
+        bitSet.set(2432, 2500);
+
+        // then
+        assertThat(bitSet.cardinality()).isEqualTo(4 + 140 + 68);
+        assertThat(bitSet.get(4)).isFalse();
+        assertThat(bitSet.get(5)).isTrue();
+        assertThat(bitSet.get(8)).isTrue();
+        assertThat(bitSet.get(9)).isFalse();
+        assertThat(bitSet.nextSetBit(10)).isEqualTo(60);
+        assertThat(bitSet.nextClearBit(60)).isEqualTo(200);
+        assertThat(bitSet.nextSetBit(200)).isEqualTo(2432);
+        assertThat(bitSet.length()).isEqualTo(2500);
+    }
+
+    @Test
+    void shouldIterateSetBits() {
+        // given
+        final var bitSet = new PermissionBitSet(200);
+        bitSet.set(3);
+        bitSet.set(64);
+        bitSet.set(199);
+
+        // when
+        final var first = bitSet.nextSetBit(0);
+        final var second = bitSet.nextSetBit(first + 1);
+        final var third = bitSet.nextSetBit(second + 1);
+        final var none = bitSet.nextSetBit(third + 1);
+
+        // then
+        assertThat(first).isEqualTo(3);
+        assertThat(second).isEqualTo(64);
+        assertThat(third).isEqualTo(199);
+        assertThat(none).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldCombineWordWise() {
+        // given
+        final var left = new PermissionBitSet(128);
+        left.set(1);
+        left.set(100);
+        final var right = new PermissionBitSet(64);
+        right.set(1);
+        right.set(2);
+
+        // when
+        final var and = left.and(right);
+        final var or = left.or(right);
+
+        // then
+        assertThat(and.nextSetBit(0)).isEqualTo(1);
+        assertThat(and.cardinality()).isEqualTo(1);
+        assertThat(or.cardinality()).isEqualTo(3);
+        assertThat(or.containsAll(left)).isTrue();
+        assertThat(or.containsAll(right)).isTrue();
+        assertThat(left.containsAll(right)).isFalse();
+        assertThat(left.containsAll(and)).isTrue();
+    }
+
+    @Test
+    void shouldTruncateBitsBeyondSize() {
+        // given
+        final var bitSet = new PermissionBitSet(200);
+        bitSet.set(4);
+        bitSet.set(5);
+        bitSet.set(130);
+
+        // when
+        final var truncated = bitSet.truncate(5);
+        final var untouched = bitSet.truncate(131);
+
+        // then
+        assertThat(truncated.cardinality()).isEqualTo(1);
+        assertThat(truncated.get(4)).isTrue();
+        assertThat(untouched).isSameAs(bitSet);
+    }
+
+    @Test
+    void shouldCompareIgnoringTrailingEmptyWords() {
+        // given
+        final var shortBitSet = new PermissionBitSet(1);
+        shortBitSet.set(5);
+        final var longBitSet = new PermissionBitSet(1000);
+        longBitSet.set(5);
+
+        // then
+        assertThat(shortBitSet).isEqualTo(longBitSet);
+        assertThat(shortBitSet.hashCode()).isEqualTo(longBitSet.hashCode());
+    }
+
+}
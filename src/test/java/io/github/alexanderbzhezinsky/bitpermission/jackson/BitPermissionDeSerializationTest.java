@@ -1,15 +1,24 @@
 package io.github.alexanderbzhezinsky.bitpermission.jackson;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.github.alexanderbzhezinsky.bitpermission.BitPermission;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissionService;
+import io.github.alexanderbzhezinsky.bitpermission.BitPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.ParsedToken;
 import io.github.alexanderbzhezinsky.bitpermission.enumeration.SmallTestPermissions;
+import io.github.alexanderbzhezinsky.bitpermission.enumeration.TestPermissions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,6 +63,25 @@ class BitPermissionDeSerializationTest {
         assertThat(actual).isEqualTo(SERIALIZED_SMALL_TEST_BIT_PERMISSION);
     }
 
+    @Test
+    void shouldSerializeBitPermissionsWithCatalogModule() throws JsonProcessingException {
+        // given
+        final var objectMapper = new ObjectMapper().registerModule(BitPermissionJackson.getModule(
+                new BitPermissionService(Set.of(SmallTestPermissions.class, TestPermissions.class))));
+        final var bitPermissions = List.of(
+                SMALL_TEST_BIT_PERMISSION,
+                new BitPermission("TestPermissions", 4, "h"),
+                new BitPermission("UnknownPermissions", 1, "1"));
+
+        // when
+        final var actual = objectMapper.writeValueAsString(bitPermissions);
+
+        // then
+        assertThat(actual).isEqualTo("[" + SERIALIZED_SMALL_TEST_BIT_PERMISSION
+                + ",{\"TestPermissions@4\":\"h\"},{\"UnknownPermissions@1\":\"1\"}]");
+        assertThat(actual).isEqualTo(OBJECT_MAPPER.writeValueAsString(bitPermissions));
+    }
+
     @Test
     void shouldDeserializeBitPermission() throws JsonProcessingException {
 
@@ -64,6 +92,233 @@ class BitPermissionDeSerializationTest {
         assertThat(actual).isEqualTo(SMALL_TEST_BIT_PERMISSION);
     }
 
+    @Test
+    void shouldDeserializeBitPermissionList() throws JsonProcessingException {
+        // given
+        final var serialized = "[" + SERIALIZED_SMALL_TEST_BIT_PERMISSION + ",{\"TestPermissions@5\":\"h\"}]";
+
+        // when
+        final var actual = OBJECT_MAPPER.readValue(serialized, new TypeReference<List<BitPermission>>() {
+        });
+
+        // then
+        assertThat(actual).containsExactly(SMALL_TEST_BIT_PERMISSION, new BitPermission("TestPermissions", 5, "h"));
+    }
+
+    @Test
+    void shouldSkipExtraFieldsOfBitPermission() throws JsonProcessingException {
+        // given
+        final var serialized = "[{\"SmallTestPermissions@128\":\"4000000000000g000040000201\","
+                + "\"extra\":{\"nested\":[1,2]}},{\"TestPermissions@5\":\"h\"}]";
+
+        // when
+        final var actual = OBJECT_MAPPER.readValue(serialized, new TypeReference<List<BitPermission>>() {
+        });
+
+        // then
+        assertThat(actual).containsExactly(SMALL_TEST_BIT_PERMISSION, new BitPermission("TestPermissions", 5, "h"));
+    }
+
+    @Test
+    void shouldSerializeBitPermissionsAsFlatObject() throws JsonProcessingException {
+        // given
+        final var objectMapper = new ObjectMapper().registerModule(BitPermissionJackson.getModule(
+                new BitPermissionService(Set.of(SmallTestPermissions.class, TestPermissions.class))));
+        final var bitPermissions = new BitPermissions(List.of(
+                SMALL_TEST_BIT_PERMISSION,
+                new BitPermission("TestPermissions", 4, "h"),
+                new BitPermission("UnknownPermissions", 1, "1")));
+
+        // when
+        final var actual = objectMapper.writeValueAsString(bitPermissions);
+
+        // then
+        assertThat(actual).isEqualTo("{\"SmallTestPermissions@128\":\"4000000000000g000040000201\","
+                + "\"TestPermissions@4\":\"h\",\"UnknownPermissions@1\":\"1\"}");
+        assertThat(actual).isEqualTo(OBJECT_MAPPER.writeValueAsString(bitPermissions));
+    }
+
+    @Test
+    void shouldDeserializeBitPermissionsFromFlatObject() throws JsonProcessingException {
+        // given
+        final var bitPermissions = new BitPermissions(List.of(
+                SMALL_TEST_BIT_PERMISSION,
+                new BitPermission("TestPermissions", 5, "h")));
+
+        // when
+        final var actual = OBJECT_MAPPER.readValue(
+                OBJECT_MAPPER.writeValueAsString(bitPermissions), BitPermissions.class);
+
+        // then
+        assertThat(actual).isEqualTo(bitPermissions);
+        assertThat(OBJECT_MAPPER.readValue("{}", BitPermissions.class).bitPermissions()).isEmpty();
+    }
+
+    @Test
+    void shouldNotDeserializeBitPermissionsWithInvalidEntries() {
+
+        // when
+        final var thrownByKey = catchThrowable(() -> OBJECT_MAPPER.readValue(
+                "{\"TestPermissions@5\":\"h\",\"SmallTestPermissions\":\"1\"}", BitPermissions.class));
+        final var thrownByValue = catchThrowable(() -> OBJECT_MAPPER.readValue(
+                "{\"TestPermissions@5\":[\"h\"]}", BitPermissions.class));
+        final var thrownByArray = catchThrowable(() -> OBJECT_MAPPER.readValue(
+                "[{\"TestPermissions@5\":\"h\"}]", BitPermissions.class));
+
+        // then
+        assertThat(thrownByKey).isInstanceOf(IllegalArgumentException.class);
+        assertThat(thrownByValue).isInstanceOf(JsonProcessingException.class);
+        assertThat(thrownByArray).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void shouldReuseCatalogDomainAndRevisionInstances() throws JsonProcessingException {
+        // given
+        final var objectMapper = new ObjectMapper().registerModule(BitPermissionJackson.getModule(
+                new BitPermissionService(Set.of(SmallTestPermissions.class, TestPermissions.class))));
+        final var serialized = "[" + SERIALIZED_SMALL_TEST_BIT_PERMISSION + ",{\"TestPermissions@4\":\"h\"}]";
+        final var typeReference = new TypeReference<List<BitPermission>>() {
+        };
+
+        // when
+        final var first = objectMapper.readValue(serialized, typeReference);
+        final var second = objectMapper.readValue(serialized, typeReference);
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(second.get(0).domain()).isSameAs(first.get(0).domain());
+        assertThat(second.get(0).revision()).isSameAs(first.get(0).revision());
+        assertThat(second.get(1).domain()).isSameAs(first.get(1).domain());
+    }
+
+    @Test
+    void shouldCacheOnlyKeysOfRegisteredDomains() {
+        // given
+        final var domainAndRevisionTable =
+                new DomainAndRevisionTable(Map.of("TestPermissions", 5, "BigTestPermissions", 2500));
+        for (int i = 0; i < 2048; i++) {
+            domainAndRevisionTable.resolve("UnknownPermissions" + i + "@1");
+            domainAndRevisionTable.resolve("TestPermissions@" + (i - 1024));
+            domainAndRevisionTable.resolve("BigTestPermissions@" + (i + 1));
+        }
+
+        // when
+        final var first = domainAndRevisionTable.resolve("TestPermissions@4");
+        final var second = domainAndRevisionTable.resolve("TestPermissions@4");
+        final var newer = domainAndRevisionTable.resolve("TestPermissions@6");
+        final var unknown = domainAndRevisionTable.resolve("UnknownPermissions0@1");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.registered()).isTrue();
+        assertThat(newer.registered()).isTrue();
+        assertThat(domainAndRevisionTable.resolve("TestPermissions@6")).isNotSameAs(newer);
+        assertThat(unknown.registered()).isFalse();
+        assertThat(domainAndRevisionTable.resolve("UnknownPermissions0@1")).isNotSameAs(unknown);
+    }
+
+    @Test
+    void shouldDeserializeParsedTokenWithCatalogModule() throws JsonProcessingException {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(SmallTestPermissions.class, TestPermissions.class));
+        final var objectMapper = new ObjectMapper()
+                .registerModule(BitPermissionJackson.getModule(bitPermissionService));
+        final List<? extends Enum<?>> permissions = List.of(
+                SmallTestPermissions.PERMISSION_0,
+                SmallTestPermissions.PERMISSION_5,
+                TestPermissions.CREATE_PERMISSION,
+                TestPermissions.PERMISSION_1023);
+        final var bitPermissions = new ArrayList<>(bitPermissionService.getBitPermissions(permissions));
+        bitPermissions.add(0, new BitPermission("UnknownPermissions", 1, "1"));
+        bitPermissions.add(new BitPermission("TestPermissions", 5, "1"));
+
+        // when
+        final var fromList = objectMapper.readValue(
+                objectMapper.writeValueAsString(bitPermissions), ParsedToken.class);
+        final var fromObject = objectMapper.readValue(
+                objectMapper.writeValueAsString(new BitPermissions(bitPermissions)), ParsedToken.class);
+
+        // then
+        assertThat(new ArrayList<Enum<?>>(bitPermissionService.getPermissions(fromList)))
+                .containsExactlyInAnyOrderElementsOf(permissions);
+        assertThat(new ArrayList<Enum<?>>(bitPermissionService.getPermissions(fromObject)))
+                .containsExactlyInAnyOrderElementsOf(permissions);
+        assertThat(bitPermissionService.checkHasPermission(TestPermissions.CREATE_PERMISSION, fromList)).isTrue();
+        assertThat(bitPermissionService.checkHasPermission(TestPermissions.READ_PERMISSION, fromObject)).isFalse();
+    }
+
+    @Test
+    void shouldSkipBlankBitmaskInParsedTokenLikeParse() throws JsonProcessingException {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(SmallTestPermissions.class, TestPermissions.class));
+        final var objectMapper = new ObjectMapper()
+                .registerModule(BitPermissionJackson.getModule(bitPermissionService));
+        final var json = "[{\"TestPermissions@5\":\" \"},{\"TestPermissions@5\":\"1\"}]";
+
+        // when
+        final var parsedToken = objectMapper.readValue(json, ParsedToken.class);
+        final var bitPermissions = objectMapper.readValue(json, new TypeReference<List<BitPermission>>() {
+        });
+
+        // then
+        assertThat(bitPermissionService.getPermissions(parsedToken))
+                .isEqualTo(List.of(TestPermissions.CREATE_PERMISSION))
+                .isEqualTo(bitPermissionService.getPermissions(bitPermissions));
+    }
+
+    @Test
+    void shouldSkipUnregisteredDomainsInParsedToken() throws JsonProcessingException {
+        // given
+        final var bitPermissionService = new BitPermissionService(
+                Set.of(SmallTestPermissions.class, TestPermissions.class));
+        final var objectMapper = new ObjectMapper()
+                .registerModule(BitPermissionJackson.getModule(bitPermissionService));
+
+        // when
+        final var fromObject = objectMapper.readValue(
+                "{\"TestPermissions\":\"h\",\"Unknown@five\":{\"a\":[1]},\"@5\":5,\"TestPermissions@5\":\"1\"}",
+                ParsedToken.class);
+        final var fromList = objectMapper.readValue(
+                "[{\"UnknownPermissions@1\":[\"1\"]},{\"TestPermissionsX@5\":\"1\"}]", ParsedToken.class);
+
+        // then
+        assertThat(bitPermissionService.getPermissions(fromObject)).isEqualTo(List.of(TestPermissions.CREATE_PERMISSION));
+        assertThat(fromList.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldNotDeserializeParsedTokenWithInvalidEntries() {
+        // given
+        final var objectMapper = new ObjectMapper().registerModule(BitPermissionJackson.getModule(
+                new BitPermissionService(Set.of(SmallTestPermissions.class, TestPermissions.class))));
+
+        // when
+        final var thrownByKey = catchThrowable(() -> objectMapper.readValue(
+                "{\"TestPermissions@5@5\":\"h\"}", ParsedToken.class));
+        final var thrownByRevision = catchThrowable(() -> objectMapper.readValue(
+                "[{\"TestPermissions@five\":\"h\"}]", ParsedToken.class));
+        final var thrownByValue = catchThrowable(() -> objectMapper.readValue(
+                "[{\"TestPermissions@5\":5}]", ParsedToken.class));
+
+        // then
+        assertThat(thrownByKey).isInstanceOf(IllegalArgumentException.class);
+        assertThat(thrownByRevision).isInstanceOf(NumberFormatException.class);
+        assertThat(thrownByValue).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void shouldNotDeserializeBitPermissionWithNotStringBitmask() {
+
+        // when
+        final var thrown = catchThrowable(
+                () -> OBJECT_MAPPER.readValue("{\"SmallTestPermissions@128\":{}}", BitPermission.class));
+
+        // then
+        assertThat(thrown).isInstanceOf(JsonProcessingException.class);
+    }
+
     @ParameterizedTest(name = "should throw exception when provided serialized bit permission is invalid: {0}")
     @MethodSource("getInvalidSerializedBitPermissionTestCases")
     void shouldNotDeserializeBitPermission(String legend,
@@ -101,7 +356,10 @@ class BitPermissionDeSerializationTest {
                         "{\"SmallTestPermissions@ \":\"4000000000000g000040000201\"}"),
                 Arguments.of(
                         "blank domain",
-                        "{\" @1\":\"4000000000000g000040000201\"}")
+                        "{\" @1\":\"4000000000000g000040000201\"}"),
+                Arguments.of(
+                        "no fields",
+                        "{}")
         );
     }
 